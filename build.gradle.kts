@@ -40,6 +40,25 @@ java {
     }
 }
 
+// Java 21 layer of the multi-release jar
+val java21: SourceSet by sourceSets.creating {
+    java.setSrcDirs(listOf("src/main/java21"))
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+}
+
+// Load-test harness against a local Azure stand-in, run with the "loadTest" task
+val loadTest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.test.get().compileClasspath
+    runtimeClasspath += output + sourceSets.test.get().runtimeClasspath
+}
+
+tasks.named<JavaCompile>("compileJava21Java") {
+    javaCompiler.set(javaToolchains.compilerFor {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    })
+    options.release.set(21)
+}
+
 omegat {
     version("5.8.0") // target java version is 8
     pluginClass("org.omegat.connectors.machinetranslators.azure.MicrosoftTranslatorAzure")
@@ -65,6 +84,29 @@ tasks.withType<Test>().configureEach {
     useJUnitPlatform()
 }
 
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+tasks.register<Test>("benchmark") {
+    description = "Compare request executor throughput on Java 21 against a local stub."
+    group = "verification"
+    javaLauncher.set(javaToolchains.launcherFor {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    })
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    // Java 21 classes come first, as they would from META-INF/versions/21 of the jar
+    classpath = java21.output + sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    testLogging {
+        showStandardStreams = true
+    }
+}
+
 distributions {
     main {
         contents {
@@ -73,6 +115,19 @@ distributions {
     }
 }
 
+tasks.register<JavaExec>("loadTest") {
+    description = "Drive the connector with simulated translators against a local Azure stand-in."
+    group = "verification"
+    classpath = loadTest.runtimeClasspath
+    mainClass.set("org.omegat.connectors.machinetranslators.azure.LoadTest")
+    systemProperties(project.properties.filterKeys { it.startsWith("loadtest.") })
+}
+
+// Keep the load-test harness compiling with the connector
+tasks.check {
+    dependsOn(tasks.named(loadTest.classesTaskName))
+}
+
 val signKey = listOf("signingKey", "signing.keyId", "signing.gnupg.keyName").find {project.hasProperty(it)}
 tasks.withType<Sign> {
     onlyIf { signKey != null }
@@ -97,11 +152,17 @@ signing {
 
 val jar by tasks.getting(Jar::class) {
     duplicatesStrategy = DuplicatesStrategy.INCLUDE
+    into("META-INF/versions/21") {
+        from(java21.output)
+    }
+    manifest {
+        attributes("Multi-Release" to "true")
+    }
 }
 
 spotless {
     java {
-        target(listOf("src/*/java/**/*.java"))
+        target(listOf("src/*/java/**/*.java", "src/*/java21/**/*.java"))
         removeUnusedImports()
         palantirJavaFormat()
         importOrder("org.omegat", "java", "javax", "", "\\#")
@@ -0,0 +1,219 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.omegat.connectors.machinetranslators.azure;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * A local stand-in for the Azure Translator V2 and V3 APIs.
+ * <p>
+ * Responses are delayed with a log-normal distribution around the configured
+ * median latency. A share of requests is throttled with 429 or fails with 500.
+ * Characters of successful translation requests are counted as billed.
+ *
+ * @author agent
+ */
+public class AzureStub {
+
+    static final String TOKEN_PATH = "/sts/v1.0/issueToken";
+    static final String V2_API_PATH = "/v2/http.svc/Translate";
+    static final String V3_API_PATH = "/translate";
+
+    private final WireMockServer server;
+    private final Behaviour behaviour;
+
+    /**
+     * Constructor.
+     * @param latencyMs median latency of responses in milliseconds.
+     * @param throttleRate share of requests answered with 429.
+     * @param errorRate share of requests answered with 500.
+     * @param threads number of server threads.
+     */
+    public AzureStub(int latencyMs, double throttleRate, double errorRate, int threads) {
+        behaviour = new Behaviour(latencyMs, throttleRate, errorRate);
+        server = new WireMockServer(wireMockConfig()
+                .dynamicPort()
+                .containerThreads(threads)
+                .disableRequestJournal()
+                .extensions(behaviour));
+    }
+
+    public void start() {
+        server.start();
+        server.stubFor(any(anyUrl()).willReturn(aResponse().withTransformers(Behaviour.NAME)));
+    }
+
+    public void stop() {
+        server.stop();
+    }
+
+    public String getTokenUrl() {
+        return "http://localhost:" + server.port() + TOKEN_PATH;
+    }
+
+    public String getV2Url() {
+        return "http://localhost:" + server.port() + V2_API_PATH;
+    }
+
+    public String getV3Url() {
+        return "http://localhost:" + server.port() + V3_API_PATH + "?api-version=3.0";
+    }
+
+    public long getRequests() {
+        return behaviour.requests.get();
+    }
+
+    public long getThrottled() {
+        return behaviour.throttled.get();
+    }
+
+    public long getErrors() {
+        return behaviour.errors.get();
+    }
+
+    public long getBilledCharacters() {
+        return behaviour.billedCharacters.get();
+    }
+
+    private static final class Behaviour extends ResponseDefinitionTransformer {
+        static final String NAME = "azure-stub";
+
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final int latencyMs;
+        private final double throttleRate;
+        private final double errorRate;
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong throttled = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong billedCharacters = new AtomicLong();
+
+        Behaviour(int latencyMs, double throttleRate, double errorRate) {
+            this.latencyMs = latencyMs;
+            this.throttleRate = throttleRate;
+            this.errorRate = errorRate;
+        }
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public boolean applyGlobally() {
+            return false;
+        }
+
+        @Override
+        public ResponseDefinition transform(
+                Request request, ResponseDefinition responseDefinition, FileSource files, Parameters parameters) {
+            String path = request.getUrl().split("\\?")[0];
+            if (path.equals(TOKEN_PATH)) {
+                return delayed(200).withBody("STUBTOKEN").build();
+            }
+            requests.incrementAndGet();
+            Random random = ThreadLocalRandom.current();
+            double dice = random.nextDouble();
+            if (dice < throttleRate) {
+                throttled.incrementAndGet();
+                return ResponseDefinitionBuilder.responseDefinition()
+                        .withStatus(429)
+                        .withBody("{\"error\":{\"code\":429001,\"message\":\"Too many requests\"}}")
+                        .build();
+            }
+            if (dice < throttleRate + errorRate) {
+                errors.incrementAndGet();
+                return delayed(500).build();
+            }
+            try {
+                if (path.equals(V2_API_PATH)) {
+                    String text = request.queryParameter("text").firstValue();
+                    billedCharacters.addAndGet(text.length());
+                    return delayed(200)
+                            .withHeader("Content-Type", "application/xml")
+                            .withBody("<string xmlns=\"http://schemas.microsoft.com/2003/10/Serialization/\">"
+                                    + translate(text).replace("<", "&lt;").replace(">", "&gt;") + "</string>")
+                            .build();
+                } else if (path.equals(V3_API_PATH)) {
+                    JsonNode body = mapper.readTree(request.getBodyAsString());
+                    StringBuilder sb = new StringBuilder("[");
+                    for (JsonNode item : body) {
+                        String text = item.get("text").asText();
+                        billedCharacters.addAndGet(text.length());
+                        Map<String, Object> translation = new TreeMap<>();
+                        translation.put("text", translate(text));
+                        translation.put("to", request.queryParameter("to").firstValue());
+                        if (sb.length() > 1) {
+                            sb.append(',');
+                        }
+                        sb.append(mapper.writeValueAsString(
+                                Collections.singletonMap("translations", Collections.singletonList(translation))));
+                    }
+                    return delayed(200)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody(sb.append(']').toString())
+                            .build();
+                }
+            } catch (Exception e) {
+                return ResponseDefinitionBuilder.responseDefinition()
+                        .withStatus(400)
+                        .withBody(e.getMessage())
+                        .build();
+            }
+            return ResponseDefinitionBuilder.responseDefinition().withStatus(404).build();
+        }
+
+        private ResponseDefinitionBuilder delayed(int status) {
+            ResponseDefinitionBuilder builder = ResponseDefinitionBuilder.responseDefinition().withStatus(status);
+            if (latencyMs > 0) {
+                builder.withLogNormalRandomDelay(latencyMs, 0.3);
+            }
+            return builder;
+        }
+
+        private static String translate(String text) {
+            return "[xx] " + text;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.omegat.connectors.machinetranslators.azure;
+
+import org.omegat.util.Language;
+import org.omegat.util.Preferences;
+import org.omegat.util.RuntimePreferences;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of the connector against a local Azure stand-in.
+ * <p>
+ * N simulated translators work through their own documents at the same time,
+ * each with its own connector instance as on separate workstations. They
+ * mostly move to the next segment, sometimes go back, jump or reopen a segment,
+ * and the documents contain repetitions and untranslatable segments.
+ * <p>
+ * Run with {@code ./gradlew loadTest}; settings are given as
+ * {@code -Ploadtest.<name>=<value>}:
+ * <ul>
+ * <li>{@code translators}: number of simulated translators (20)</li>
+ * <li>{@code segments}: segments visited by each translator (200)</li>
+ * <li>{@code document}: segments in each document (150)</li>
+ * <li>{@code thinkMs}: mean time between segments (100)</li>
+ * <li>{@code latencyMs}: median latency of the stub (150)</li>
+ * <li>{@code throttleRate}: share of 429 responses (0.02)</li>
+ * <li>{@code errorRate}: share of 500 responses (0.01)</li>
+ * <li>{@code api}: v3 or v2 (v3)</li>
+ * <li>{@code seed}: random seed (1)</li>
+ * </ul>
+ *
+ * @author agent
+ */
+public final class LoadTest {
+
+    private static final String[] WORDS = {
+        "the", "file", "project", "open", "save", "translation", "memory", "segment", "select", "window",
+        "click", "button", "settings", "user", "document", "source", "target", "language", "export", "import",
+        "error", "message", "check", "spelling", "glossary", "term", "match", "fuzzy", "editor", "search",
+        "replace", "display", "options", "create", "new", "delete", "current", "next", "previous", "folder",
+        "is", "are", "to", "from", "with", "and", "or", "not", "can", "must"
+    };
+    private static final String[] UNTRANSLATABLE = {
+        "1.2.3", "https://omegat.org/", "C:\\Program Files\\OmegaT", "getTranslation()", "42", "<f0></f0>"
+    };
+
+    private final int translators = intSetting("translators", 20);
+    private final int segments = intSetting("segments", 200);
+    private final int documentSize = intSetting("document", 150);
+    private final int thinkMs = intSetting("thinkMs", 100);
+    private final int latencyMs = intSetting("latencyMs", 150);
+    private final double throttleRate = doubleSetting("throttleRate", 0.02);
+    private final double errorRate = doubleSetting("errorRate", 0.01);
+    private final boolean v2 = "v2".equalsIgnoreCase(System.getProperty("loadtest.api", "v3"));
+    private final long seed = intSetting("seed", 1);
+
+    private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong passthrough = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest().run();
+        System.exit(0);
+    }
+
+    private static int intSetting(String name, int defaultValue) {
+        return Integer.parseInt(System.getProperty("loadtest." + name, Integer.toString(defaultValue)));
+    }
+
+    private static double doubleSetting(String name, double defaultValue) {
+        return Double.parseDouble(System.getProperty("loadtest." + name, Double.toString(defaultValue)));
+    }
+
+    private void run() throws Exception {
+        File configDir = Files.createTempDirectory("omegat-loadtest").toFile();
+        RuntimePreferences.setConfigDir(configDir.getAbsolutePath());
+        Preferences.init();
+        Preferences.setPreference(MicrosoftTranslatorAzure.ALLOW_MICROSOFT_TRANSLATOR_AZURE, true);
+        Preferences.setPreference(MicrosoftTranslatorAzure.PROPERTY_V2, v2);
+        System.setProperty(MicrosoftTranslatorAzure.PROPERTY_SUBSCRIPTION_KEY, "loadtest");
+
+        AzureStub stub = new AzureStub(latencyMs, throttleRate, errorRate, Math.max(16, translators * 2));
+        stub.start();
+        try {
+            CountDownLatch done = new CountDownLatch(translators);
+            long start = System.nanoTime();
+            for (int i = 0; i < translators; i++) {
+                Random random = new Random(seed * 1000 + i);
+                StubConnector connector = new StubConnector(stub);
+                Thread thread = new Thread(
+                        () -> {
+                            try {
+                                simulate(connector, createDocument(random), random);
+                            } finally {
+                                done.countDown();
+                            }
+                        },
+                        "translator-" + i);
+                thread.start();
+            }
+            done.await();
+            report((System.nanoTime() - start) / 1e9, stub);
+        } finally {
+            stub.stop();
+            deleteRecursively(configDir);
+        }
+    }
+
+    private List<String> createDocument(Random random) {
+        List<String> document = new ArrayList<>(documentSize);
+        for (int i = 0; i < documentSize; i++) {
+            double dice = random.nextDouble();
+            if (dice < 0.1) {
+                document.add(UNTRANSLATABLE[random.nextInt(UNTRANSLATABLE.length)]);
+            } else if (dice < 0.2 && i > 0) {
+                // repetition of an earlier segment
+                document.add(document.get(random.nextInt(i)));
+            } else {
+                int length = 4 + random.nextInt(11);
+                StringBuilder sb = new StringBuilder();
+                for (int w = 0; w < length; w++) {
+                    if (w > 0) {
+                        sb.append(' ');
+                    }
+                    sb.append(WORDS[random.nextInt(WORDS.length)]);
+                }
+                document.add(sb.append('.').toString());
+            }
+        }
+        return document;
+    }
+
+    /**
+     * Follow a segment-navigation pattern: mostly the next segment, sometimes
+     * going back, jumping elsewhere or reopening the current one.
+     */
+    private void simulate(StubConnector connector, List<String> document, Random random) {
+        Language source = new Language("EN");
+        Language target = new Language("DE");
+        int current = 0;
+        for (int step = 0; step < segments; step++) {
+            String text = document.get(current);
+            long begin = System.nanoTime();
+            try {
+                connector.getTranslation(source, target, text);
+            } catch (Exception e) {
+                failures.incrementAndGet();
+            }
+            latencies.add((System.nanoTime() - begin) / 1_000_000);
+            calls.incrementAndGet();
+            double dice = random.nextDouble();
+            if (dice < 0.80) {
+                current = Math.min(document.size() - 1, current + 1);
+            } else if (dice < 0.88) {
+                current = Math.max(0, current - 1);
+            } else if (dice < 0.95) {
+                current = random.nextInt(document.size());
+            }
+            if (thinkMs > 0) {
+                try {
+                    Thread.sleep((long) (-Math.log(1 - random.nextDouble()) * thinkMs));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        passthrough.addAndGet(connector.getAvoidedRequests());
+    }
+
+    private void report(double seconds, AzureStub stub) {
+        List<Long> sorted;
+        synchronized (latencies) {
+            sorted = new ArrayList<>(latencies);
+        }
+        Collections.sort(sorted);
+        long total = calls.get();
+        System.out.printf(
+                "API %s, %d translators x %d segments, stub latency %d ms, 429 %.1f%%, 500 %.1f%%%n",
+                v2 ? "V2" : "V3",
+                translators,
+                segments,
+                latencyMs,
+                throttleRate * 100,
+                errorRate * 100);
+        System.out.printf("Elapsed: %.2f s, throughput: %.1f segments/s%n", seconds, total / seconds);
+        System.out.printf(
+                "Latency ms: p50=%d p90=%d p95=%d p99=%d max=%d%n",
+                percentile(sorted, 50),
+                percentile(sorted, 90),
+                percentile(sorted, 95),
+                percentile(sorted, 99),
+                sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1));
+        System.out.printf(
+                "Cache hit rate: %.1f%% (%d of %d), passthrough: %d, failed: %d%n",
+                total == 0 ? 0 : 100.0 * (total - misses.get()) / total,
+                total - misses.get(),
+                total,
+                passthrough.get(),
+                failures.get());
+        System.out.printf(
+                "Stub: %d requests, %d throttled, %d errors, %d billed characters%n",
+                stub.getRequests(),
+                stub.getThrottled(),
+                stub.getErrors(),
+                stub.getBilledCharacters());
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p / 100 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+
+    private static void deleteRecursively(File file) throws IOException {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        Files.deleteIfExists(file.toPath());
+    }
+
+    /**
+     * Connector pointed at the stub, counting cache misses.
+     */
+    private final class StubConnector extends MicrosoftTranslatorAzure {
+        private final AzureStub stub;
+
+        StubConnector(AzureStub stub) {
+            this.stub = stub;
+        }
+
+        @Override
+        protected MicrosoftTranslatorBase createTranslator(AzureConfiguration config) {
+            MicrosoftTranslatorBase translator = super.createTranslator(config);
+            if (translator instanceof MicrosoftTranslatorV2) {
+                ((MicrosoftTranslatorV2) translator).setTokenUrl(stub.getTokenUrl());
+                ((MicrosoftTranslatorV2) translator).setUrl(stub.getV2Url());
+            } else {
+                ((AzureTranslatorV3) translator).setUrl(stub.getV3Url());
+            }
+            return translator;
+        }
+
+        @Override
+        protected String translate(Language sLang, Language tLang, String text) throws Exception {
+            misses.incrementAndGet();
+            return super.translate(sLang, tLang, text);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.omegat.connectors.machinetranslators.azure;
+
+import org.omegat.util.StringUtil;
+
+/**
+ * Immutable snapshot of the connector configuration.
+ * <p>
+ * The connector reads preferences and credentials once into a snapshot and
+ * gives it to the translator it creates, which reads it without locking.
+ * A new snapshot and translator replace the old ones when the configuration
+ * dialog is confirmed or a preference changes, so a batch of requests never
+ * sees a half-updated configuration. The snapshot holds settings only;
+ * counters and the health of resources are kept by the connector.
+ *
+ * @author agent
+ */
+public final class AzureConfiguration {
+
+    private final String key;
+    private final String region;
+    private final boolean neural;
+    private final boolean v2;
+    private final int warmUpSegments;
+    private final PassthroughFilter passthroughFilter;
+    private final RequestTracer tracer;
+
+    /**
+     * Constructor.
+     * @param key subscription key, or null when not configured.
+     * @param region region/location of the subscription.
+     * @param neural whether to use the V2 neural engine.
+     * @param v2 whether to use the legacy V2 API.
+     * @param warmUpSegments number of segments to translate at project load.
+     * @param passthroughFilter filter of untranslatable segments.
+     * @param tracer request tracer.
+     */
+    AzureConfiguration(
+            String key,
+            String region,
+            boolean neural,
+            boolean v2,
+            int warmUpSegments,
+            PassthroughFilter passthroughFilter,
+            RequestTracer tracer) {
+        this.key = key;
+        this.region = region;
+        this.neural = neural;
+        this.v2 = v2;
+        this.warmUpSegments = warmUpSegments;
+        this.passthroughFilter = passthroughFilter;
+        this.tracer = tracer;
+    }
+
+    /**
+     * @return subscription key.
+     * @throws Exception when the key is not configured.
+     */
+    public String getKey() throws Exception {
+        if (StringUtil.isEmpty(key)) {
+            throw new Exception(MicrosoftTranslatorAzure.getString("MT_ENGINE_MICROSOFT_SUBSCRIPTION_KEY_NOTFOUND"));
+        }
+        return key;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public boolean isNeural() {
+        return neural;
+    }
+
+    public boolean isV2() {
+        return v2;
+    }
+
+    public int getWarmUpSegments() {
+        return warmUpSegments;
+    }
+
+    public PassthroughFilter getPassthroughFilter() {
+        return passthroughFilter;
+    }
+
+    public RequestTracer getTracer() {
+        return tracer;
+    }
+}
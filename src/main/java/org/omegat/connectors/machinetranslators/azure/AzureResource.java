@@ -0,0 +1,143 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.omegat.connectors.machinetranslators.azure;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An Azure Translator resource: a subscription key with its region and endpoint.
+ * <p>
+ * It tracks requests in flight and takes itself out of rotation for a while
+ * after the service throttles or fails, backing off exponentially on
+ * consecutive failures.
+ *
+ * @author agent
+ */
+public class AzureResource {
+
+    static final long MIN_COOLDOWN_MS = 1000;
+    static final long MAX_COOLDOWN_MS = 60000;
+
+    private final String key;
+    private final String region;
+    private final String endpoint;
+    private final int weight;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong served = new AtomicLong();
+    private int failures;
+    private long unavailableUntil;
+
+    /**
+     * Constructor.
+     * @param key subscription key.
+     * @param region region/location of the resource, or empty for a global resource.
+     * @param endpoint translate URL with a query string, such as
+     *      {@code https://api-eur.cognitive.microsofttranslator.com/translate?api-version=3.0},
+     *      or null for the translator's default.
+     * @param weight relative share of requests, at least 1.
+     */
+    public AzureResource(String key, String region, String endpoint, int weight) {
+        this.key = key;
+        this.region = region;
+        this.endpoint = endpoint;
+        this.weight = Math.max(1, weight);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * @return number of requests sent to this resource.
+     */
+    public long getServed() {
+        return served.get();
+    }
+
+    /**
+     * @param other another resource.
+     * @return true when both have the same key, region, endpoint and weight.
+     */
+    boolean isSameResource(AzureResource other) {
+        return key.equals(other.key)
+                && Objects.equals(region, other.region)
+                && Objects.equals(endpoint, other.endpoint)
+                && weight == other.weight;
+    }
+
+    void acquire() {
+        outstanding.incrementAndGet();
+        served.incrementAndGet();
+    }
+
+    void release() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * @param now current time in milliseconds.
+     * @return true when the resource is in rotation.
+     */
+    synchronized boolean isAvailable(long now) {
+        return now >= unavailableUntil;
+    }
+
+    synchronized long getUnavailableUntil() {
+        return unavailableUntil;
+    }
+
+    /**
+     * Take the resource out of rotation after throttling or failure.
+     * @param now current time in milliseconds.
+     */
+    synchronized void markFailure(long now) {
+        long cooldown = Math.min(MAX_COOLDOWN_MS, MIN_COOLDOWN_MS << Math.min(failures, 16));
+        failures++;
+        unavailableUntil = now + cooldown;
+    }
+
+    synchronized void markSuccess() {
+        failures = 0;
+        unavailableUntil = 0;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.omegat.connectors.machinetranslators.azure;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Distributes requests across several Azure resources.
+ * <p>
+ * Each request goes to the available resource with the fewest requests in
+ * flight relative to its weight. Ties are broken by the number of requests
+ * served relative to the weight, which gives a weighted round-robin for
+ * sequential traffic. When every resource is out of rotation, the one that
+ * comes back first is used for the first attempt, and retries stop.
+ *
+ * @author agent
+ */
+public class AzureResourcePool {
+
+    private final List<AzureResource> resources;
+
+    public AzureResourcePool(List<AzureResource> resources) {
+        if (resources.isEmpty()) {
+            throw new IllegalArgumentException("No Azure resource");
+        }
+        this.resources = Collections.unmodifiableList(new ArrayList<>(resources));
+    }
+
+    public List<AzureResource> getResources() {
+        return resources;
+    }
+
+    public int size() {
+        return resources.size();
+    }
+
+    /**
+     * Create a pool of the given resources. A resource with the same key, region,
+     * endpoint and weight as one in this pool is replaced by the existing one, so
+     * that its requests in flight and health are kept.
+     * @param updated resources read from a new configuration.
+     * @return new pool.
+     */
+    public AzureResourcePool update(List<AzureResource> updated) {
+        List<AzureResource> result = new ArrayList<>(updated.size());
+        for (AzureResource resource : updated) {
+            AzureResource existing = resource;
+            for (AzureResource candidate : resources) {
+                if (candidate.isSameResource(resource) && !result.contains(candidate)) {
+                    existing = candidate;
+                    break;
+                }
+            }
+            result.add(existing);
+        }
+        return new AzureResourcePool(result);
+    }
+
+    /**
+     * Choose a resource and count a request in flight on it.
+     * Call {@link #release(AzureResource)} when the request completes.
+     * @return chosen resource.
+     */
+    public AzureResource acquire() {
+        return acquire(Collections.emptySet());
+    }
+
+    /**
+     * Choose a resource not tried yet by the request and count a request in flight on it.
+     * Call {@link #release(AzureResource)} when the request completes.
+     * @param tried resources the request has already tried.
+     * @return chosen resource, or null when no untried resource is in rotation
+     *      on a retry.
+     */
+    public synchronized AzureResource acquire(Set<AzureResource> tried) {
+        long now = System.currentTimeMillis();
+        AzureResource best = null;
+        for (AzureResource resource : resources) {
+            if (!tried.contains(resource)
+                    && resource.isAvailable(now)
+                    && (best == null || compare(resource, best) < 0)) {
+                best = resource;
+            }
+        }
+        if (best == null && tried.isEmpty()) {
+            for (AzureResource resource : resources) {
+                if (best == null || resource.getUnavailableUntil() < best.getUnavailableUntil()) {
+                    best = resource;
+                }
+            }
+        }
+        if (best != null) {
+            best.acquire();
+        }
+        return best;
+    }
+
+    public void release(AzureResource resource) {
+        resource.release();
+    }
+
+    private static int compare(AzureResource a, AzureResource b) {
+        int c = Double.compare(
+                (double) a.getOutstanding() / a.getWeight(), (double) b.getOutstanding() / b.getWeight());
+        if (c != 0) {
+            return c;
+        }
+        return Double.compare((a.getServed() + 1.0) / a.getWeight(), (b.getServed() + 1.0) / b.getWeight());
+    }
+}
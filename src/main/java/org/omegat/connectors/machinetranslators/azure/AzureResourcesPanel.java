@@ -0,0 +1,122 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.omegat.connectors.machinetranslators.azure;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * Table of the extra V3 resources and their subscription keys, shown in the
+ * configuration dialog.
+ *
+ * @author agent
+ */
+class AzureResourcesPanel extends JPanel {
+
+    static final int REGION = 0;
+    static final int ENDPOINT = 1;
+    static final int WEIGHT = 2;
+    static final int KEY = 3;
+
+    private final DefaultTableModel model;
+    private final JTable table;
+
+    AzureResourcesPanel() {
+        super(new BorderLayout());
+        model = new DefaultTableModel(
+                new String[] {
+                    MicrosoftTranslatorAzure.getString("MT_ENGINE_MICROSOFT_RESOURCES_REGION"),
+                    MicrosoftTranslatorAzure.getString("MT_ENGINE_MICROSOFT_RESOURCES_ENDPOINT"),
+                    MicrosoftTranslatorAzure.getString("MT_ENGINE_MICROSOFT_RESOURCES_WEIGHT"),
+                    MicrosoftTranslatorAzure.getString("MT_ENGINE_MICROSOFT_RESOURCES_KEY")
+                },
+                0);
+        table = new JTable(model);
+        table.putClientProperty("terminateEditOnFocusLost", Boolean.TRUE);
+        JScrollPane scrollPane = new JScrollPane(table);
+        int height = getFont().getSize();
+        scrollPane.setPreferredSize(new Dimension(height * 36, height * 8));
+
+        JButton addButton = new JButton(MicrosoftTranslatorAzure.getString("MT_ENGINE_MICROSOFT_RESOURCES_ADD"));
+        addButton.addActionListener(e -> model.addRow(new String[] {"", "", "1", ""}));
+        JButton removeButton =
+                new JButton(MicrosoftTranslatorAzure.getString("MT_ENGINE_MICROSOFT_RESOURCES_REMOVE"));
+        removeButton.addActionListener(e -> {
+            int[] rows = table.getSelectedRows();
+            for (int i = rows.length - 1; i >= 0; i--) {
+                model.removeRow(rows[i]);
+            }
+        });
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEADING));
+        buttons.add(addButton);
+        buttons.add(removeButton);
+
+        add(new JLabel(MicrosoftTranslatorAzure.getString("MT_ENGINE_MICROSOFT_RESOURCES_LABEL")), BorderLayout.NORTH);
+        add(scrollPane, BorderLayout.CENTER);
+        add(buttons, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Add a row.
+     * @param fields region, endpoint, weight and subscription key.
+     */
+    void addResource(String[] fields) {
+        model.addRow(fields);
+    }
+
+    /**
+     * Return the rows that are not empty, trimmed. A global resource has no region.
+     * @return region, endpoint, weight and subscription key of each resource.
+     */
+    List<String[]> getResources() {
+        if (table.isEditing()) {
+            table.getCellEditor().stopCellEditing();
+        }
+        List<String[]> resources = new ArrayList<>();
+        for (int row = 0; row < model.getRowCount(); row++) {
+            String[] fields = new String[model.getColumnCount()];
+            for (int column = 0; column < fields.length; column++) {
+                Object value = model.getValueAt(row, column);
+                fields[column] = value == null ? "" : value.toString().trim();
+            }
+            // the weight has a default, so a row with nothing else is empty
+            if (!fields[REGION].isEmpty() || !fields[ENDPOINT].isEmpty() || !fields[KEY].isEmpty()) {
+                resources.add(fields);
+            }
+        }
+        return resources;
+    }
+}
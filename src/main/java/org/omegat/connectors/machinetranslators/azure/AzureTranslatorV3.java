@@ -7,6 +7,7 @@
  *                2016-2017 Aaron Madlon-Kay
  *                2018 Didier Briel
  *                2022,2023 Hiroshi Miura
+ *                2026 agent
  *                Home page: https://www.omegat.org/
  *                Support center: https://omegat.org/support
  *
@@ -28,9 +29,14 @@
 package org.omegat.connectors.machinetranslators.azure;
 
 import org.omegat.util.HttpConnectionUtils;
+import org.omegat.util.Log;
 
+import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -43,36 +49,153 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  */
 public class AzureTranslatorV3 extends MicrosoftTranslatorBase {
 
+    private static final String API_VERSION = "api-version=3.0";
     private static final String DEFAULT_URL = "https://api.cognitive.microsofttranslator.com/translate?api-version=3.0";
 
     private String urlTranslate;
     private final ObjectMapper mapper = new ObjectMapper();
+    private final AzureResourcePool pool;
 
-    public AzureTranslatorV3(MicrosoftTranslatorAzure parent) {
-        super(parent);
+    /**
+     * Constructor.
+     * @param config configuration snapshot.
+     * @param pool resources to send requests to, shared across snapshots so that
+     *      their health survives a configuration change, or null when the
+     *      subscription key is not configured.
+     */
+    public AzureTranslatorV3(AzureConfiguration config, AzureResourcePool pool) {
+        super(config);
+        this.pool = pool;
         urlTranslate = DEFAULT_URL;
     }
 
+    private AzureResourcePool getResourcePool() throws Exception {
+        if (pool == null) {
+            // the connector gives no pool without a subscription key
+            config.getKey();
+        }
+        return pool;
+    }
+
     @Override
     protected String requestTranslate(String langFrom, String langTo, String text) throws Exception {
+        AzureResourcePool resourcePool = getResourcePool();
+        Set<AzureResource> tried = new HashSet<>();
+        IOException failure = null;
+        while (true) {
+            AzureResource resource = resourcePool.acquire(tried);
+            if (resource == null) {
+                throw failure;
+            }
+            tried.add(resource);
+            try {
+                String result = requestTranslate(resource, langFrom, langTo, text);
+                resource.markSuccess();
+                return result;
+            } catch (IOException e) {
+                int code = statusOf(e);
+                if (code >= 0) {
+                    if (!isRetryable(code)) {
+                        throw e;
+                    }
+                    Log.log("Azure translator resource " + resource.getRegion() + " responded " + code);
+                }
+                resource.markFailure(System.currentTimeMillis());
+                failure = e;
+            } finally {
+                resourcePool.release(resource);
+            }
+        }
+    }
+
+    /**
+     * Whether another resource may succeed where this one failed:
+     * throttling, quota or key errors, a wrong endpoint, and server errors.
+     */
+    private static boolean isRetryable(int code) {
+        return code == 401 || code == 403 || code == 404 || code == 429 || code >= 500;
+    }
+
+    /**
+     * Complete an endpoint to a translate URL. A resource endpoint as shown in the
+     * Azure portal, such as {@code https://api-eur.cognitive.microsofttranslator.com},
+     * gets the {@code /translate} path and the {@code api-version=3.0} parameter
+     * when they are missing.
+     * @param endpoint endpoint or translate URL.
+     * @return translate URL with a query string.
+     */
+    static String normalizeEndpoint(String endpoint) {
+        String base = endpoint.trim();
+        String query = "";
+        int q = base.indexOf('?');
+        if (q >= 0) {
+            query = base.substring(q + 1);
+            base = base.substring(0, q);
+        }
+        while (base.endsWith("/")) {
+            base = base.substring(0, base.length() - 1);
+        }
+        if (!base.endsWith("/translate")) {
+            base += "/translate";
+        }
+        if (!("&" + query).contains("&api-version=")) {
+            query = query.isEmpty() ? API_VERSION : query + "&" + API_VERSION;
+        }
+        return base + "?" + query;
+    }
+
+    private String requestTranslate(AzureResource resource, String langFrom, String langTo, String text)
+            throws Exception {
+        String endpoint = resource.getEndpoint() != null ? resource.getEndpoint() : urlTranslate;
+        RequestTracer tracer = config.getTracer();
+        RequestTracer.Trace trace =
+                tracer.begin("v3", endpoint, resource.getRegion(), langFrom, langTo, 1, text.length());
         Map<String, String> p = new TreeMap<>();
-        p.put("Ocp-Apim-Subscription-Key", parent.getKey());
-        p.put("Ocp-Apim-Subscription-Region", parent.getRegion());
-        String url = urlTranslate + "&from=" + langFrom + "&to=" + langTo;
+        p.put("Ocp-Apim-Subscription-Key", resource.getKey());
+        if (resource.getRegion() != null && !resource.getRegion().isEmpty()) {
+            // global resources have no region
+            p.put("Ocp-Apim-Subscription-Region", resource.getRegion());
+        }
+        trace.addHeader(p);
+        String url = endpoint + (endpoint.indexOf('?') < 0 ? '?' : '&') + "from=" + langFrom + "&to=" + langTo;
         String json = createJsonRequest(text);
-        String res = HttpConnectionUtils.postJSON(url, json, p);
-        JsonNode root = mapper.readTree(res);
-        JsonNode translations = root.get(0).get("translations");
-        if (translations == null) {
-            return null;
+        trace.phase("serialize");
+        String res;
+        try {
+            if (tracer.isEnabled()) {
+                res = tracedRequest(trace, url, p, "application/json; charset=UTF-8", json);
+            } else {
+                res = HttpConnectionUtils.postJSON(url, json, p);
+            }
+        } catch (IOException e) {
+            trace.end(statusOf(e), e.toString());
+            throw e;
+        }
+        // Both return a body only for HTTP 200 and throw otherwise.
+        JsonNode translation;
+        try {
+            JsonNode root = mapper.readTree(res);
+            JsonNode translations = root.get(0).get("translations");
+            translation = translations == null ? null : translations.get(0).get("text");
+        } catch (IOException e) {
+            trace.end(HttpURLConnection.HTTP_OK, e.toString());
+            throw e;
         }
-        JsonNode translation = translations.get(0).get("text");
+        trace.phase("parse");
+        trace.end(HttpURLConnection.HTTP_OK, translation == null ? "no translation" : null);
         if (translation == null) {
             return null;
         }
         return translation.asText();
     }
 
+    @Override
+    protected void warmUp() throws Exception {
+        for (AzureResource resource : getResourcePool().getResources()) {
+            openConnection(resource.getEndpoint() != null ? resource.getEndpoint() : urlTranslate);
+        }
+    }
+
     /**
      * Method for test.
      * @param url alternative url.
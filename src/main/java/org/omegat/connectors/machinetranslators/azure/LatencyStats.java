@@ -0,0 +1,97 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.omegat.connectors.machinetranslators.azure;
+
+import java.util.Arrays;
+
+/**
+ * Latency samples of recent requests.
+ * <p>
+ * Keeps the last {@link #WINDOW} samples in a ring buffer and computes
+ * percentiles on demand.
+ *
+ * @author agent
+ */
+public class LatencyStats {
+
+    static final int WINDOW = 1024;
+
+    private final long[] samples = new long[WINDOW];
+    private long count;
+    private long sum;
+
+    /**
+     * Record a sample.
+     * @param millis latency in milliseconds.
+     */
+    public synchronized void record(long millis) {
+        samples[(int) (count % WINDOW)] = millis;
+        count++;
+        sum += millis;
+    }
+
+    /**
+     * @return number of samples recorded since creation.
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * @return mean latency of all samples in milliseconds, or 0 when empty.
+     */
+    public synchronized double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Percentile over the recent samples.
+     * @param p percentile between 0 and 100.
+     * @return latency in milliseconds, or 0 when empty.
+     */
+    public long percentile(double p) {
+        long[] sorted;
+        synchronized (this) {
+            if (count == 0) {
+                return 0;
+            }
+            sorted = Arrays.copyOf(samples, (int) Math.min(count, WINDOW));
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(p / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "n=%d mean=%.1fms p50=%dms p95=%dms p99=%dms",
+                getCount(),
+                getMean(),
+                percentile(50),
+                percentile(95),
+                percentile(99));
+    }
+}
@@ -7,6 +7,7 @@
  *                2016-2017 Aaron Madlon-Kay
  *                2018 Didier Briel
  *                2022,2023 Hiroshi Miura
+ *                2026 agent
  *                Home page: https://www.omegat.org/
  *                Support center: https://omegat.org/support
  *
@@ -28,20 +29,33 @@
 package org.omegat.connectors.machinetranslators.azure;
 
 import org.omegat.core.Core;
+import org.omegat.core.CoreEvents;
+import org.omegat.core.data.IProject;
+import org.omegat.core.data.SourceTextEntry;
+import org.omegat.core.events.IEntryEventListener;
+import org.omegat.core.events.IProjectEventListener;
 import org.omegat.core.machinetranslators.BaseCachedTranslate;
 import org.omegat.gui.exttrans.IMachineTranslation;
 import org.omegat.gui.exttrans.MTConfigDialog;
 import org.omegat.util.CredentialsManager;
 import org.omegat.util.Language;
+import org.omegat.util.Log;
 import org.omegat.util.OStrings;
 import org.omegat.util.Preferences;
+import org.omegat.util.StaticUtils;
 import org.omegat.util.StringUtil;
 
 import java.awt.Dimension;
 import java.awt.Window;
+import java.io.File;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.swing.JCheckBox;
 
@@ -64,16 +78,84 @@ public class MicrosoftTranslatorAzure extends BaseCachedTranslate implements IMa
     protected static final String PROPERTY_V2 = "microsoft.v2";
     protected static final String PROPERTY_SUBSCRIPTION_KEY = "microsoft.api.subscription_key";
     protected static final String PROPERTY_REGION = "microsoft.api.region";
+    protected static final String PROPERTY_RESOURCES = "microsoft.api.resources";
+    protected static final String PROPERTY_WARMUP_SEGMENTS = "microsoft.warmup.segments";
+    protected static final String PROPERTY_CONCURRENCY = "microsoft.concurrency";
+    protected static final String PROPERTY_PASSTHROUGH = "microsoft.passthrough";
+    protected static final String PROPERTY_PASSTHROUGH_PATTERNS = "microsoft.passthrough.patterns";
+    protected static final String PROPERTY_TRACE = "microsoft.trace";
+
+    /**
+     * Default number of requests in flight when requests run on virtual threads.
+     */
+    protected static final int VIRTUAL_THREAD_CONCURRENCY = 64;
+
+    /**
+     * Interval of the request statistics in the log.
+     */
+    private static final long STATISTICS_INTERVAL_NS = TimeUnit.MINUTES.toNanos(10);
+
+    private static final String TRACE_FILE = "logs/azure-translator-trace.jsonl";
 
     private static final ResourceBundle BUNDLE = ResourceBundle.getBundle("AzureTranslatorBundle");
 
-    private MicrosoftTranslatorBase translator = null;
+    private volatile MicrosoftTranslatorBase translator = null;
+    private volatile RequestScheduler scheduler = null;
+    private AzureResourcePool resourcePool = null;
+    private final AtomicLong avoidedRequests = new AtomicLong();
+    private final AtomicLong avoidedCharacters = new AtomicLong();
+    private volatile boolean segmentWarmUpPending = false;
+    private final AtomicLong statisticsLogged = new AtomicLong(System.nanoTime());
 
     /**
      * Constructor of the connector.
      */
     public MicrosoftTranslatorAzure() {
         super();
+        CoreEvents.registerProjectChangeListener(eventType -> {
+            if (eventType == IProjectEventListener.PROJECT_CHANGE_TYPE.LOAD && isEnabled()) {
+                segmentWarmUpPending = true;
+                warmUp();
+            } else if (eventType == IProjectEventListener.PROJECT_CHANGE_TYPE.CLOSE) {
+                segmentWarmUpPending = false;
+                logStatistics();
+            }
+        });
+        CoreEvents.registerEntryEventListener(new IEntryEventListener() {
+            @Override
+            public void onNewFile(String activeFileName) {}
+
+            @Override
+            public void onEntryActivated(SourceTextEntry newEntry) {
+                if (segmentWarmUpPending && newEntry != null) {
+                    segmentWarmUpPending = false;
+                    // Only the entry number is read on the UI thread.
+                    int start = newEntry.entryNum() - 1;
+                    getScheduler().submit(RequestScheduler.Priority.BACKGROUND, () -> {
+                        try {
+                            warmUpSegments(start);
+                        } catch (Exception e) {
+                            Log.log("Microsoft Translator segment warm-up failed: " + e.getMessage());
+                        }
+                        return null;
+                    });
+                }
+            }
+        });
+        for (String property : new String[] {
+            PROPERTY_NEURAL,
+            PROPERTY_V2,
+            PROPERTY_SUBSCRIPTION_KEY,
+            PROPERTY_REGION,
+            PROPERTY_RESOURCES,
+            PROPERTY_WARMUP_SEGMENTS,
+            PROPERTY_PASSTHROUGH,
+            PROPERTY_PASSTHROUGH_PATTERNS,
+            PROPERTY_TRACE
+        }) {
+            Preferences.addPropertyChangeListener(property, e -> invalidateConfiguration());
+        }
+        Preferences.addPropertyChangeListener(PROPERTY_CONCURRENCY, e -> updateConcurrency());
     }
 
     /**
@@ -183,14 +265,340 @@ public class MicrosoftTranslatorAzure extends BaseCachedTranslate implements IMa
         return key;
     }
 
+    /**
+     * Translate text. Untranslatable segments are returned immediately without
+     * taking a request slot.
+     */
     @Override
     protected String translate(Language sLang, Language tLang, String text) throws Exception {
-        if (isV2() && (translator == null || translator instanceof AzureTranslatorV3)) {
-            translator = new MicrosoftTranslatorV2(this);
-        } else if (translator == null || translator instanceof MicrosoftTranslatorV2) {
-            translator = new AzureTranslatorV3(this);
+        logStatisticsPeriodically();
+        MicrosoftTranslatorBase current = getTranslator();
+        if (current.getConfiguration().getPassthroughFilter().test(text)) {
+            avoidedRequests.incrementAndGet();
+            avoidedCharacters.addAndGet(text.length());
+            return text;
+        }
+        return current.translate(sLang, tLang, text, getScheduler());
+    }
+
+    /**
+     * @return number of requests not sent to the service by the passthrough filter.
+     */
+    protected long getAvoidedRequests() {
+        return avoidedRequests.get();
+    }
+
+    /**
+     * @return number of characters not sent to the service by the passthrough filter.
+     */
+    protected long getAvoidedCharacters() {
+        return avoidedCharacters.get();
+    }
+
+    /**
+     * Return a translator for the configured API version, creating it with a new
+     * configuration snapshot when needed.
+     * @return active translator.
+     */
+    protected MicrosoftTranslatorBase getTranslator() {
+        MicrosoftTranslatorBase current = translator;
+        if (current == null) {
+            synchronized (this) {
+                current = translator;
+                if (current == null) {
+                    current = createTranslator(loadConfiguration());
+                    translator = current;
+                }
+            }
         }
-        return translator.translate(sLang, tLang, text);
+        return current;
+    }
+
+    /**
+     * Return the current configuration snapshot, loading it when needed.
+     * @return configuration.
+     */
+    protected AzureConfiguration getConfiguration() {
+        return getTranslator().getConfiguration();
+    }
+
+    /**
+     * Discard the configuration snapshot and its translator; the next request loads new ones.
+     */
+    protected synchronized void invalidateConfiguration() {
+        translator = null;
+    }
+
+    /**
+     * Read preferences and credentials into a new configuration snapshot.
+     * @return configuration.
+     */
+    protected AzureConfiguration loadConfiguration() {
+        String key;
+        try {
+            key = getKey();
+        } catch (Exception e) {
+            key = null;
+        }
+        String region = getRegion();
+        PassthroughFilter passthroughFilter = new PassthroughFilter(
+                Preferences.isPreferenceDefault(PROPERTY_PASSTHROUGH, true),
+                PassthroughFilter.parsePatterns(Preferences.getPreference(PROPERTY_PASSTHROUGH_PATTERNS)));
+        RequestTracer tracer = Preferences.isPreference(PROPERTY_TRACE)
+                ? new RequestTracer(new File(StaticUtils.getConfigDir(), TRACE_FILE))
+                : RequestTracer.DISABLED;
+        return new AzureConfiguration(
+                key,
+                region,
+                isNeural(),
+                isV2(),
+                Preferences.getPreferenceDefault(PROPERTY_WARMUP_SEGMENTS, 0),
+                passthroughFilter,
+                tracer);
+    }
+
+    /**
+     * Create a translator for the configured API version.
+     * @param config configuration snapshot.
+     * @return translator bound to the snapshot.
+     */
+    protected MicrosoftTranslatorBase createTranslator(AzureConfiguration config) {
+        if (config.isV2()) {
+            return new MicrosoftTranslatorV2(config);
+        }
+        return new AzureTranslatorV3(config, updateResourcePool(config));
+    }
+
+    /**
+     * Update the pool of V3 resources from the configuration. Resources that did
+     * not change keep their state, so that a throttled resource stays out of
+     * rotation after an unrelated preference changes.
+     * @param config configuration snapshot.
+     * @return resource pool, or null when the subscription key is not configured.
+     */
+    private synchronized AzureResourcePool updateResourcePool(AzureConfiguration config) {
+        String key;
+        try {
+            key = config.getKey();
+        } catch (Exception e) {
+            return null;
+        }
+        List<AzureResource> resources = loadResources(key, config.getRegion());
+        resourcePool = resourcePool == null ? new AzureResourcePool(resources) : resourcePool.update(resources);
+        return resourcePool;
+    }
+
+    /**
+     * Read the V3 resources.
+     * <p>
+     * The first resource is made of the configured subscription key and region.
+     * Additional resources are listed in {@link #PROPERTY_RESOURCES}, one per line as
+     * {@code region|endpoint|weight}, where every field is optional. The endpoint may
+     * be the resource endpoint or a translate URL; see
+     * {@link AzureTranslatorV3#normalizeEndpoint(String)}. The key of the n-th line is stored as the credential
+     * {@code microsoft.api.subscription_key.n}, counting from 1.
+     */
+    private List<AzureResource> loadResources(String primaryKey, String primaryRegion) {
+        List<AzureResource> resources = new ArrayList<>();
+        resources.add(new AzureResource(primaryKey, primaryRegion, null, 1));
+        List<String[]> lines = getResourceLines();
+        for (int index = 1; index <= lines.size(); index++) {
+            String[] fields = lines.get(index - 1);
+            String key = getCredential(PROPERTY_SUBSCRIPTION_KEY + "." + index);
+            if (StringUtil.isEmpty(key)) {
+                Log.log("Microsoft Translator resource " + index + " has no subscription key");
+                continue;
+            }
+            String endpoint = fields[AzureResourcesPanel.ENDPOINT].isEmpty()
+                    ? null
+                    : AzureTranslatorV3.normalizeEndpoint(fields[AzureResourcesPanel.ENDPOINT]);
+            int weight = 1;
+            if (!fields[AzureResourcesPanel.WEIGHT].isEmpty()) {
+                try {
+                    weight = Integer.parseInt(fields[AzureResourcesPanel.WEIGHT]);
+                } catch (NumberFormatException e) {
+                    Log.log("Microsoft Translator resource " + index + " has invalid weight: "
+                            + fields[AzureResourcesPanel.WEIGHT]);
+                }
+            }
+            resources.add(new AzureResource(key, fields[AzureResourcesPanel.REGION], endpoint, weight));
+        }
+        return resources;
+    }
+
+    /**
+     * Read the non-empty lines of {@link #PROPERTY_RESOURCES}.
+     * @return trimmed region, endpoint and weight of each line.
+     */
+    private static List<String[]> getResourceLines() {
+        List<String[]> result = new ArrayList<>();
+        String lines = Preferences.getPreferenceDefault(PROPERTY_RESOURCES, "");
+        for (String line : lines.split("\\R")) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split("\\|", -1);
+            String[] row = new String[3];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = i < fields.length ? fields[i].trim() : "";
+            }
+            result.add(row);
+        }
+        return result;
+    }
+
+    /**
+     * Store the extra resources to {@link #PROPERTY_RESOURCES} and their subscription keys
+     * as numbered credentials. Keys of removed resources are cleared.
+     * @param resources region, endpoint, weight and subscription key of each resource.
+     * @param temporary whether keys are kept only for this session.
+     */
+    private void setResources(List<String[]> resources, boolean temporary) {
+        int previous = getResourceLines().size();
+        StringBuilder lines = new StringBuilder();
+        for (int index = 1; index <= resources.size(); index++) {
+            String[] fields = resources.get(index - 1);
+            if (lines.length() > 0) {
+                lines.append('\n');
+            }
+            lines.append(fields[AzureResourcesPanel.REGION])
+                    .append('|')
+                    .append(fields[AzureResourcesPanel.ENDPOINT])
+                    .append('|')
+                    .append(fields[AzureResourcesPanel.WEIGHT]);
+            setCredential(PROPERTY_SUBSCRIPTION_KEY + "." + index, fields[AzureResourcesPanel.KEY], temporary);
+        }
+        for (int index = resources.size() + 1; index <= previous; index++) {
+            setCredential(PROPERTY_SUBSCRIPTION_KEY + "." + index, "", false);
+        }
+        Preferences.setPreference(PROPERTY_RESOURCES, lines.toString());
+    }
+
+    /**
+     * Return a scheduler of outbound requests, creating it when needed.
+     * <p>
+     * {@link #PROPERTY_CONCURRENCY} limits the number of requests in flight;
+     * one of them is always kept for the interactive request. The default is the
+     * size of the platform thread pool, or {@link #VIRTUAL_THREAD_CONCURRENCY}
+     * when requests run on virtual threads. A change of the preference applies
+     * to the existing scheduler without dropping queued requests.
+     * @return request scheduler.
+     */
+    protected RequestScheduler getScheduler() {
+        RequestScheduler current = scheduler;
+        if (current == null) {
+            synchronized (this) {
+                current = scheduler;
+                if (current == null) {
+                    current = new RequestScheduler(
+                            RequestExecutors.newRequestExecutor("azure-translator"), loadConcurrency(), 1);
+                    scheduler = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static int loadConcurrency() {
+        int defaultConcurrency =
+                RequestExecutors.isVirtual() ? VIRTUAL_THREAD_CONCURRENCY : RequestExecutors.DEFAULT_POOL_SIZE;
+        return Math.max(2, Preferences.getPreferenceDefault(PROPERTY_CONCURRENCY, defaultConcurrency));
+    }
+
+    private void updateConcurrency() {
+        RequestScheduler current = scheduler;
+        if (current != null) {
+            current.setMaxConcurrency(loadConcurrency());
+        }
+    }
+
+    /**
+     * Log the request statistics when {@link #STATISTICS_INTERVAL_NS} has passed
+     * since they were last logged, in addition to the log at project close.
+     */
+    private void logStatisticsPeriodically() {
+        long now = System.nanoTime();
+        long last = statisticsLogged.get();
+        if (now - last >= STATISTICS_INTERVAL_NS && statisticsLogged.compareAndSet(last, now)) {
+            logStatistics();
+        }
+    }
+
+    private void logStatistics() {
+        Log.log(String.format(
+                "Microsoft Translator passthrough filter avoided %d requests, %d characters",
+                avoidedRequests.get(),
+                avoidedCharacters.get()));
+        if (scheduler != null) {
+            for (RequestScheduler.Priority priority : RequestScheduler.Priority.values()) {
+                Log.log(String.format(
+                        "Microsoft Translator %s requests: %s, queue wait %s",
+                        priority,
+                        scheduler.getLatency(priority),
+                        scheduler.getQueueWait(priority)));
+            }
+        }
+    }
+
+    /**
+     * Warm up the connector off the UI thread when a project is loaded.
+     * <p>
+     * It constructs the active translator, connects to the endpoint and fetches a
+     * token for V2 as a background request.
+     * @return future of the warm-up task.
+     */
+    protected CompletableFuture<Void> warmUp() {
+        return getScheduler().submit(RequestScheduler.Priority.BACKGROUND, () -> {
+            try {
+                getTranslator().warmUp();
+            } catch (Exception e) {
+                Log.log("Microsoft Translator warm-up failed: " + e.getMessage());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Translate the segments visible after the project is loaded into the cache.
+     * <p>
+     * Runs as a background task queued on the first entry activation after load,
+     * when the editor has positioned on the entry the user sees, so that neither
+     * the configuration nor the project is read on the UI thread. The number of
+     * segments is set by {@link #PROPERTY_WARMUP_SEGMENTS}.
+     * @param start index of the activated entry.
+     */
+    protected void warmUpSegments(int start) {
+        int count = getConfiguration().getWarmUpSegments();
+        IProject project = Core.getProject();
+        if (count <= 0 || start < 0 || project == null || !project.isProjectLoaded()) {
+            return;
+        }
+        List<SourceTextEntry> entries = project.getAllEntries();
+        List<String> texts = new ArrayList<>();
+        for (int i = start; i < Math.min(entries.size(), start + count); i++) {
+            texts.add(entries.get(i).getSrcText());
+        }
+        warmUpSegments(
+                project.getProjectProperties().getSourceLanguage(),
+                project.getProjectProperties().getTargetLanguage(),
+                texts);
+    }
+
+    /**
+     * Queue translations of segments into the cache as background requests,
+     * which give way to the editor's ones.
+     * @param sLang source language.
+     * @param tLang target language.
+     * @param texts source texts.
+     * @return futures of the translations.
+     */
+    protected List<CompletableFuture<String>> warmUpSegments(Language sLang, Language tLang, List<String> texts) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            futures.add(getScheduler()
+                    .submit(RequestScheduler.Priority.BACKGROUND, () -> getTranslation(sLang, tLang, text)));
+        }
+        return futures;
     }
 
     @Override
@@ -225,6 +633,17 @@ public class MicrosoftTranslatorAzure extends BaseCachedTranslate implements IMa
         neuralCheckBox.setEnabled(isV2());
         v2CheckBox.addActionListener(e -> neuralCheckBox.setEnabled(v2CheckBox.isSelected()));
         v2CheckBox.setToolTipText(getString("MT_ENGINE_MICROSOFT_V3_NOT_IMPLEMENTED"));
+        AzureResourcesPanel resourcesPanel = new AzureResourcesPanel();
+        List<String[]> lines = getResourceLines();
+        for (int index = 1; index <= lines.size(); index++) {
+            String[] fields = lines.get(index - 1);
+            resourcesPanel.addResource(new String[] {
+                fields[AzureResourcesPanel.REGION],
+                fields[AzureResourcesPanel.ENDPOINT],
+                fields[AzureResourcesPanel.WEIGHT],
+                getCredential(PROPERTY_SUBSCRIPTION_KEY + "." + index)
+            });
+        }
 
         MTConfigDialog dialog = new MTConfigDialog(parent, getName()) {
             @Override
@@ -234,6 +653,8 @@ public class MicrosoftTranslatorAzure extends BaseCachedTranslate implements IMa
                 Preferences.setPreference(PROPERTY_V2, v2CheckBox.isSelected());
                 Preferences.setPreference(
                         PROPERTY_REGION, panel.valueField2.getText().trim());
+                setResources(resourcesPanel.getResources(), panel.temporaryCheckBox.isSelected());
+                invalidateConfiguration();
             }
         };
         dialog.panel.valueLabel1.setText(getString("MT_ENGINE_MICROSOFT_SUBSCRIPTION_KEY_LABEL"));
@@ -250,6 +671,7 @@ public class MicrosoftTranslatorAzure extends BaseCachedTranslate implements IMa
         dialog.panel.temporaryCheckBox.setSelected(isCredentialStoredTemporarily);
         dialog.panel.itemsPanel.add(v2CheckBox);
         dialog.panel.itemsPanel.add(neuralCheckBox);
+        dialog.panel.itemsPanel.add(resourcesPanel);
 
         dialog.show();
     }
@@ -7,6 +7,7 @@
  *                2016-2017 Aaron Madlon-Kay
  *                2018 Didier Briel
  *                2022,2023 Hiroshi Miura
+ *                2026 agent
  *                Home page: https://www.omegat.org/
  *                Support center: https://omegat.org/support
  *
@@ -27,8 +28,20 @@
  */
 package org.omegat.connectors.machinetranslators.azure;
 
+import org.omegat.util.HttpConnectionUtils;
 import org.omegat.util.Language;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
 /**
  * Support for Microsoft Translator API machine translation.
  *
@@ -41,10 +54,20 @@ import org.omegat.util.Language;
  */
 public abstract class MicrosoftTranslatorBase {
 
-    protected final MicrosoftTranslatorAzure parent;
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+
+    protected final AzureConfiguration config;
 
-    public MicrosoftTranslatorBase(MicrosoftTranslatorAzure parent) {
-        this.parent = parent;
+    /**
+     * Constructor.
+     * @param config configuration snapshot used by every request of this translator.
+     */
+    public MicrosoftTranslatorBase(AzureConfiguration config) {
+        this.config = config;
+    }
+
+    public AzureConfiguration getConfiguration() {
+        return config;
     }
 
     /**
@@ -72,11 +95,174 @@ public abstract class MicrosoftTranslatorBase {
      * @return translated text.
      * @throws Exception when connection error.
      */
-    protected synchronized String translate(Language sLang, Language tLang, String text) throws Exception {
+    protected String translate(Language sLang, Language tLang, String text) throws Exception {
+        return translate(sLang, tLang, text, null);
+    }
+
+    /**
+     * translate text, scheduling the service request.
+     * @param sLang source langauge.
+     * @param tLang target language.
+     * @param text source text.
+     * @param scheduler scheduler of the service request, or null to call it directly.
+     * @return translated text.
+     * @throws Exception when connection error.
+     */
+    protected String translate(Language sLang, Language tLang, String text, RequestScheduler scheduler)
+            throws Exception {
         String langFrom = checkMSLang(sLang);
         String langTo = checkMSLang(tLang);
-        return requestTranslate(langFrom, langTo, text);
+        if (scheduler == null) {
+            return requestTranslate(langFrom, langTo, text);
+        }
+        return scheduler.call(RequestScheduler.Priority.INTERACTIVE, () -> requestTranslate(langFrom, langTo, text));
     }
 
+    /**
+     * Send a translation request to the service.
+     * Implementations may be called concurrently from several request threads.
+     */
     protected abstract String requestTranslate(String langFrom, String langTo, String text) throws Exception;
+
+    /**
+     * Prepare connections and credentials ahead of the first request.
+     * @throws Exception when the service is not reachable or the key is missing.
+     */
+    protected abstract void warmUp() throws Exception;
+
+    /**
+     * Error status returned to a traced request.
+     */
+    protected static class ResponseStatusError extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public final int code;
+
+        ResponseStatusError(int code, String message) {
+            super(message == null ? String.valueOf(code) : code + ": " + message);
+            this.code = code;
+        }
+    }
+
+    /**
+     * Return the HTTP status of a failed request.
+     * @param e error of {@link HttpConnectionUtils} or of a traced request.
+     * @return HTTP status, or -1 when no response was received.
+     */
+    protected static int statusOf(IOException e) {
+        if (e instanceof HttpConnectionUtils.ResponseError) {
+            return ((HttpConnectionUtils.ResponseError) e).code;
+        }
+        if (e instanceof ResponseStatusError) {
+            return ((ResponseStatusError) e).code;
+        }
+        return -1;
+    }
+
+    /**
+     * Append URL-encoded query parameters to a URL.
+     * @param url base URL, with or without a query string.
+     * @param params query parameters.
+     * @return URL with the parameters.
+     * @throws IOException when UTF-8 is not supported.
+     */
+    protected static String withQuery(String url, Map<String, String> params) throws IOException {
+        StringBuilder sb = new StringBuilder(url);
+        char separator = url.indexOf('?') < 0 ? '?' : '&';
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            sb.append(separator)
+                    .append(URLEncoder.encode(param.getKey(), "UTF-8"))
+                    .append('=')
+                    .append(URLEncoder.encode(param.getValue(), "UTF-8"));
+            separator = '&';
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Send a traced request, timing each step as a phase of the trace:
+     * "dns" for the host lookup, "connect" for TCP and TLS handshake, which is
+     * close to zero when a kept-alive connection is reused, "send" for the
+     * request body, "server" for the wait until the response status, and "read"
+     * for the response body.
+     * @param trace trace of the request.
+     * @param url request URL.
+     * @param headers request headers.
+     * @param contentType content type of the body.
+     * @param body request body, or null for a GET request.
+     * @return response body.
+     * @throws ResponseStatusError when the response status is not 200.
+     * @throws IOException when connection error.
+     */
+    protected static String tracedRequest(
+            RequestTracer.Trace trace, String url, Map<String, String> headers, String contentType, String body)
+            throws IOException {
+        URL u = new URL(url);
+        InetAddress.getByName(u.getHost());
+        trace.phase("dns");
+        HttpURLConnection conn = (HttpURLConnection) u.openConnection();
+        try {
+            conn.setRequestMethod(body == null ? "GET" : "POST");
+            conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                conn.setRequestProperty(header.getKey(), header.getValue());
+            }
+            if (body != null) {
+                conn.setDoOutput(true);
+                conn.setRequestProperty("Content-Type", contentType);
+            }
+            conn.connect();
+            trace.phase("connect");
+            if (body != null) {
+                try (OutputStream out = conn.getOutputStream()) {
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+                trace.phase("send");
+            }
+            int code = conn.getResponseCode();
+            trace.phase("server");
+            InputStream in = code < HttpURLConnection.HTTP_BAD_REQUEST ? conn.getInputStream() : conn.getErrorStream();
+            ByteArrayOutputStream response = new ByteArrayOutputStream();
+            if (in != null) {
+                try (InputStream stream = in) {
+                    byte[] buffer = new byte[8192];
+                    int n;
+                    while ((n = stream.read(buffer)) > 0) {
+                        response.write(buffer, 0, n);
+                    }
+                }
+            }
+            trace.phase("read");
+            if (code != HttpURLConnection.HTTP_OK) {
+                throw new ResponseStatusError(code, conn.getResponseMessage());
+            }
+            return new String(response.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            conn.disconnect();
+            throw e;
+        }
+    }
+
+    /**
+     * Resolve the endpoint host and open a connection to it.
+     * The JVM keeps the connection alive, so the first translation request
+     * does not pay for DNS lookup and TLS handshake.
+     * @param endpoint service URL.
+     * @throws IOException when connection error.
+     */
+    protected static void openConnection(String endpoint) throws IOException {
+        URL url = new URL(endpoint);
+        // the JVM caches the resolved address
+        InetAddress.getByName(url.getHost());
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        conn.setRequestMethod("HEAD");
+        conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        conn.setReadTimeout(CONNECT_TIMEOUT_MS);
+        int code = conn.getResponseCode();
+        // Consume the response so that the connection returns to the keep-alive cache.
+        InputStream in = code < HttpURLConnection.HTTP_BAD_REQUEST ? conn.getInputStream() : conn.getErrorStream();
+        if (in != null) {
+            in.close();
+        }
+    }
 }
@@ -7,6 +7,7 @@
  *                2016-2017 Aaron Madlon-Kay
  *                2018 Didier Briel
  *                2022,2023 Hiroshi Miura
+ *                2026 agent
  *                Home page: https://www.omegat.org/
  *                Support center: https://omegat.org/support
  *
@@ -31,9 +32,13 @@ package org.omegat.connectors.machinetranslators.azure;
 import org.omegat.util.HttpConnectionUtils;
 import org.omegat.util.Log;
 
+import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Objects;
 import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -51,15 +56,16 @@ public class MicrosoftTranslatorV2 extends MicrosoftTranslatorBase {
 
     protected static final String DEFAULT_URL_TOKEN = "https://api.cognitive.microsoft.com/sts/v1.0/issueToken";
     protected String urlToken = null;
-    protected String accessToken;
+    protected volatile String accessToken;
+    private final ReentrantLock tokenLock = new ReentrantLock();
 
     private static final String DEFAULT_URL = "https://api.microsofttranslator.com/v2/http.svc/Translate";
     protected static final Pattern RE_RESPONSE = Pattern.compile("<string[^>]*>(.+)</string>");
 
     private String urlTranslate;
 
-    public MicrosoftTranslatorV2(MicrosoftTranslatorAzure parent) {
-        super(parent);
+    public MicrosoftTranslatorV2(AzureConfiguration config) {
+        super(config);
         urlTranslate = DEFAULT_URL;
     }
 
@@ -77,6 +83,27 @@ public class MicrosoftTranslatorV2 extends MicrosoftTranslatorBase {
         headers.put("Accept", "application/jwt");
         accessToken = HttpConnectionUtils.post(urlToken, Collections.emptyMap(), headers);
     }
+
+    /**
+     * Fetch a new token unless another thread has already replaced the stale one.
+     * A lock is used instead of synchronized so that virtual threads waiting for
+     * the token do not pin their carrier thread.
+     * @param key subscription key.
+     * @param staleToken token known to be missing or rejected.
+     * @return current token.
+     * @throws Exception when connection error.
+     */
+    protected String refreshToken(String key, String staleToken) throws Exception {
+        tokenLock.lock();
+        try {
+            if (Objects.equals(accessToken, staleToken)) {
+                requestToken(key);
+            }
+            return accessToken;
+        } finally {
+            tokenLock.unlock();
+        }
+    }
     /**
      * Method for test.
      * @param url alternative url.
@@ -85,34 +112,58 @@ public class MicrosoftTranslatorV2 extends MicrosoftTranslatorBase {
         urlTranslate = url;
     }
 
+    @Override
+    protected void warmUp() throws Exception {
+        refreshToken(config.getKey(), accessToken);
+        openConnection(urlTranslate);
+    }
+
     @Override
     protected String requestTranslate(String langFrom, String langTo, String text) throws Exception {
-        if (accessToken == null) {
-            requestToken(parent.getKey());
+        RequestTracer tracer = config.getTracer();
+        RequestTracer.Trace trace = tracer.begin("v2", urlTranslate, null, langFrom, langTo, 1, text.length());
+        String token = accessToken;
+        if (token == null) {
+            token = refreshToken(config.getKey(), null);
+            trace.phase("token");
+        }
+        Map<String, String> headers = null;
+        if (tracer.isEnabled()) {
+            headers = new TreeMap<>();
+            trace.addHeader(headers);
         }
         Map<String, String> p = new TreeMap<>();
-        p.put("appid", "Bearer " + accessToken);
+        p.put("appid", "Bearer " + token);
         p.put("text", text);
         p.put("from", langFrom);
         p.put("to", langTo);
         p.put("contentType", "text/plain");
-        if (parent.isNeural()) {
+        if (config.isNeural()) {
             p.put("category", "generalnn");
         }
         String r;
         try {
-            r = HttpConnectionUtils.get(urlTranslate, p, null);
-        } catch (HttpConnectionUtils.ResponseError ex) {
-            if (ex.code == 400) {
+            if (tracer.isEnabled()) {
+                r = tracedRequest(trace, withQuery(urlTranslate, p), headers, null, null);
+            } else {
+                r = HttpConnectionUtils.get(urlTranslate, p, headers);
+            }
+        } catch (IOException ex) {
+            int code = statusOf(ex);
+            trace.end(code, ex.toString());
+            if (code == 400) {
                 Log.log("Re-fetching Microsoft Translator API token due to 400 response");
-                requestToken(parent.getKey());
+                refreshToken(config.getKey(), token);
                 return requestTranslate(langFrom, langTo, text);
-            } else {
-                throw ex;
             }
+            throw ex;
         }
         Matcher m = RE_RESPONSE.matcher(r);
-        if (m.matches()) {
+        boolean matches = m.matches();
+        trace.phase("parse");
+        // Both return a body only for HTTP 200 and throw otherwise.
+        trace.end(HttpURLConnection.HTTP_OK, matches ? null : "wrong response");
+        if (matches) {
             String translatedText = m.group(1);
             translatedText = translatedText.replace("&lt;", "<");
             translatedText = translatedText.replace("&gt;", ">");
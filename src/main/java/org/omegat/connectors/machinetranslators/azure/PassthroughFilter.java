@@ -0,0 +1,158 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.omegat.connectors.machinetranslators.azure;
+
+import org.omegat.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Detect segments that the service returns unchanged, so that they are not sent at all.
+ * <p>
+ * OmegaT tags are removed first, then the segment is split at whitespace. The segment
+ * is untranslatable when every word matches one of the {@link #TOKEN_RULES}: numbers,
+ * version strings, URLs, e-mail addresses, file paths, code identifiers or punctuation.
+ * A segment that consists only of tags is untranslatable as well. Additional patterns
+ * are matched against the whole segment.
+ * <p>
+ * The filter holds settings only and is safe to share between threads; the
+ * connector counts the avoided requests.
+ *
+ * @author agent
+ */
+public class PassthroughFilter {
+
+    private static final Pattern RE_TAG = Pattern.compile("</?[a-zA-Z]+\\d+/?>");
+    private static final Pattern RE_SPACE = Pattern.compile("\\s+");
+
+    static final List<Pattern> TOKEN_RULES = Collections.unmodifiableList(Arrays.asList(
+            // numbers, amounts, dates and times
+            Pattern.compile("[-+\\u00b1]?\\p{Sc}?\\d+([.,:/-]\\d+)*[%\\u2030]?"),
+            // version strings
+            Pattern.compile("[vV]?\\d+(\\.\\d+)+([-+.][0-9A-Za-z.]+)?"),
+            // URLs and e-mail addresses
+            Pattern.compile("(?i)((https?|ftp)://|www\\.)\\S+"),
+            Pattern.compile("[\\w.+-]+@[\\w-]+(\\.[\\w-]+)+"),
+            // file paths: a leading separator, drive letter or home, or a file extension,
+            // so that "Yes/No/Cancel" or "mm/dd/yyyy" are still translated
+            Pattern.compile("([A-Za-z]:|~|\\.{1,2})?([\\\\/][\\w.$~-]+)+[\\\\/]?"),
+            Pattern.compile("[\\w.$~-]+([\\\\/][\\w.$~-]+)*[\\\\/][\\w$~-]+\\.\\w+"),
+            // code identifiers: camelCase, PascalCase, snake_case, CONSTANTS, dotted names and calls
+            Pattern.compile("[a-z]+[A-Z][A-Za-z0-9]*"),
+            Pattern.compile("[A-Z][a-z0-9]+([A-Z][a-z0-9]*)+"),
+            Pattern.compile("\\w*_\\w+"),
+            // a dotted name needs a capital, digit or underscore, unlike "dd.mm.yyyy"
+            Pattern.compile("(?=[\\w.]*[A-Z0-9_])[A-Za-z_]\\w*(\\.[A-Za-z_]\\w*)+"),
+            // a call needs an identifier-like name and identifier arguments, unlike "File(s)"
+            Pattern.compile("(?=[\\w.]*([a-z][A-Z]|[_.0-9]))[A-Za-z_][\\w.]*"
+                    + "\\(([A-Za-z_][\\w.]*(,[A-Za-z_][\\w.]*)*)?\\);?"),
+            // punctuation and symbols
+            Pattern.compile("[\\p{Punct}\\p{S}]+")));
+
+    private final boolean enabled;
+    private final List<Pattern> patterns;
+
+    /**
+     * Constructor.
+     * @param enabled false to send all segments to the service.
+     * @param patterns additional patterns matched against the whole segment.
+     */
+    public PassthroughFilter(boolean enabled, List<Pattern> patterns) {
+        this.enabled = enabled;
+        this.patterns = Collections.unmodifiableList(new ArrayList<>(patterns));
+    }
+
+    /**
+     * Parse additional patterns given one per line. Invalid patterns are skipped.
+     * @param lines patterns separated by line breaks.
+     * @return list of compiled patterns.
+     */
+    public static List<Pattern> parsePatterns(String lines) {
+        List<Pattern> result = new ArrayList<>();
+        if (lines == null) {
+            return result;
+        }
+        for (String line : lines.split("\\R")) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                result.add(Pattern.compile(line.trim()));
+            } catch (PatternSyntaxException e) {
+                Log.log("Ignore invalid passthrough pattern: " + line);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check a segment when the filter is enabled.
+     * @param text source text.
+     * @return true when the segment should not be sent to the service.
+     */
+    public boolean test(String text) {
+        return enabled && isUntranslatable(text);
+    }
+
+    /**
+     * Classify a segment regardless of whether the filter is enabled.
+     * @param text source text.
+     * @return true when the service would return the segment unchanged.
+     */
+    public boolean isUntranslatable(String text) {
+        if (text == null) {
+            return false;
+        }
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(text).matches()) {
+                return true;
+            }
+        }
+        String stripped = RE_TAG.matcher(text).replaceAll(" ").trim();
+        if (stripped.isEmpty()) {
+            return !text.isEmpty();
+        }
+        for (String token : RE_SPACE.split(stripped)) {
+            if (!matchesTokenRule(token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesTokenRule(String token) {
+        for (Pattern rule : TOKEN_RULES) {
+            if (rule.matcher(token).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
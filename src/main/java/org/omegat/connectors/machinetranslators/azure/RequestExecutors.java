@@ -0,0 +1,98 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.omegat.connectors.machinetranslators.azure;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory of executors that run outbound Azure requests.
+ * <p>
+ * This is the Java 8 implementation, which falls back to a bounded pool of
+ * platform threads. A Java 21 variant under {@code META-INF/versions/21}
+ * replaces it at runtime with virtual threads.
+ *
+ * @author agent
+ */
+final class RequestExecutors {
+
+    /**
+     * Number of platform threads in the fallback pool.
+     */
+    static final int DEFAULT_POOL_SIZE = 8;
+
+    private RequestExecutors() {}
+
+    /**
+     * Create an executor for outbound requests.
+     * @param name prefix of worker thread names.
+     * @return a bounded pool of daemon threads.
+     */
+    static ExecutorService newRequestExecutor(String name) {
+        return newBoundedExecutor(name, DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * Create a bounded pool of platform daemon threads.
+     * Idle threads are released after a minute.
+     * @param name prefix of worker thread names.
+     * @param size maximum number of threads.
+     * @return executor service.
+     */
+    static ExecutorService newBoundedExecutor(String name, int size) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                size, size, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DaemonThreadFactory(name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Whether {@link #newRequestExecutor(String)} runs tasks on virtual threads.
+     * @return false on this runtime.
+     */
+    static boolean isVirtual() {
+        return false;
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        DaemonThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, name + "-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
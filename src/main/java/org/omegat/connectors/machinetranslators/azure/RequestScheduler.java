@@ -0,0 +1,251 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.omegat.connectors.machinetranslators.azure;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Scheduler of outbound requests with two priority classes.
+ * <p>
+ * Queued requests are dispatched in priority order, so an interactive request
+ * for the current segment overtakes queued background work such as warm-up.
+ * Background requests never occupy the slots reserved for interactive ones.
+ * A task that is already running on the scheduler calls nested requests inline.
+ *
+ * @author agent
+ */
+public class RequestScheduler {
+
+    /**
+     * Priority classes, highest first.
+     */
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND
+    }
+
+    private static final ThreadLocal<Priority> CURRENT = new ThreadLocal<>();
+
+    private final ExecutorService executor;
+    private int maxConcurrency;
+    private final int reservedInteractive;
+    private final PriorityQueue<Task<?>> queue = new PriorityQueue<>();
+    private final Map<Priority, LatencyStats> latency = new EnumMap<>(Priority.class);
+    private final Map<Priority, LatencyStats> waiting = new EnumMap<>(Priority.class);
+    private long sequence;
+    private int running;
+    private int runningBackground;
+
+    /**
+     * Constructor.
+     * @param executor executor to run requests on.
+     * @param maxConcurrency maximum number of requests in flight.
+     * @param reservedInteractive number of slots background requests may not use.
+     */
+    public RequestScheduler(ExecutorService executor, int maxConcurrency, int reservedInteractive) {
+        checkConcurrency(maxConcurrency, reservedInteractive);
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+        this.reservedInteractive = reservedInteractive;
+        for (Priority priority : Priority.values()) {
+            latency.put(priority, new LatencyStats());
+            waiting.put(priority, new LatencyStats());
+        }
+    }
+
+    /**
+     * Queue a request.
+     * @param priority priority class.
+     * @param callable request.
+     * @param <T> result type.
+     * @return future of the result.
+     */
+    public <T> CompletableFuture<T> submit(Priority priority, Callable<T> callable) {
+        Task<T> task;
+        synchronized (this) {
+            task = new Task<>(priority, sequence++, callable);
+            queue.add(task);
+        }
+        dispatch();
+        return task.future;
+    }
+
+    /**
+     * Run a request and wait for its result.
+     * @param priority priority class.
+     * @param callable request.
+     * @param <T> result type.
+     * @return result.
+     * @throws Exception thrown by the request.
+     */
+    public <T> T call(Priority priority, Callable<T> callable) throws Exception {
+        if (CURRENT.get() != null) {
+            return callable.call();
+        }
+        try {
+            return submit(priority, callable).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Change the maximum number of requests in flight.
+     * <p>
+     * Running requests are not interrupted; when the limit is lowered, queued
+     * requests wait until the number in flight falls under the new one.
+     * @param maxConcurrency maximum number of requests in flight.
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        synchronized (this) {
+            checkConcurrency(maxConcurrency, reservedInteractive);
+            this.maxConcurrency = maxConcurrency;
+        }
+        dispatch();
+    }
+
+    /**
+     * @return maximum number of requests in flight.
+     */
+    public synchronized int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @param priority priority class.
+     * @return latency from submission to completion.
+     */
+    public LatencyStats getLatency(Priority priority) {
+        return latency.get(priority);
+    }
+
+    /**
+     * @param priority priority class.
+     * @return time spent in the queue.
+     */
+    public LatencyStats getQueueWait(Priority priority) {
+        return waiting.get(priority);
+    }
+
+    /**
+     * Stop the executor. Queued requests are not run.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static void checkConcurrency(int maxConcurrency, int reservedInteractive) {
+        if (maxConcurrency < 1 || reservedInteractive < 0 || reservedInteractive >= maxConcurrency) {
+            throw new IllegalArgumentException("Invalid concurrency: " + maxConcurrency + "/" + reservedInteractive);
+        }
+    }
+
+    private void dispatch() {
+        while (true) {
+            Task<?> task;
+            synchronized (this) {
+                task = queue.peek();
+                if (task == null || running >= maxConcurrency) {
+                    return;
+                }
+                if (task.priority == Priority.BACKGROUND && runningBackground >= maxConcurrency - reservedInteractive) {
+                    return;
+                }
+                queue.poll();
+                acquire(task);
+            }
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                release(task);
+                task.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private synchronized void acquire(Task<?> task) {
+        running++;
+        if (task.priority == Priority.BACKGROUND) {
+            runningBackground++;
+        }
+    }
+
+    private synchronized void release(Task<?> task) {
+        running--;
+        if (task.priority == Priority.BACKGROUND) {
+            runningBackground--;
+        }
+    }
+
+    private final class Task<T> implements Runnable, Comparable<Task<?>> {
+        private final Priority priority;
+        private final long seq;
+        private final Callable<T> callable;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final long submitted = System.nanoTime();
+
+        Task(Priority priority, long seq, Callable<T> callable) {
+            this.priority = priority;
+            this.seq = seq;
+            this.callable = callable;
+        }
+
+        @Override
+        public void run() {
+            long started = System.nanoTime();
+            waiting.get(priority).record((started - submitted) / 1_000_000);
+            CURRENT.set(priority);
+            try {
+                if (!future.isDone()) {
+                    future.complete(callable.call());
+                }
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                CURRENT.remove();
+                latency.get(priority).record((System.nanoTime() - submitted) / 1_000_000);
+                release(this);
+                dispatch();
+            }
+        }
+
+        @Override
+        public int compareTo(Task<?> o) {
+            int c = priority.compareTo(o.priority);
+            return c != 0 ? c : Long.compare(seq, o.seq);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.omegat.connectors.machinetranslators.azure;
+
+import org.omegat.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes a trace of outbound requests as JSON lines for latency analysis.
+ * <p>
+ * Each request gets a client trace ID, sent as the {@code X-ClientTraceId}
+ * header, and a record with the time spent in each phase, batch size,
+ * characters and response status. Records are appended to a local file,
+ * which is rotated when it grows over {@link #MAX_FILE_SIZE}. A disabled
+ * tracer returns a shared trace that does nothing, so untraced requests
+ * allocate nothing.
+ *
+ * @author agent
+ */
+public class RequestTracer {
+
+    public static final String TRACE_HEADER = "X-ClientTraceId";
+
+    static final long MAX_FILE_SIZE = 5L * 1024 * 1024;
+    static final int MAX_BACKUPS = 3;
+
+    /**
+     * A tracer that records nothing.
+     */
+    public static final RequestTracer DISABLED = new RequestTracer(null);
+
+    private static final Object LOCK = new Object();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static String hostName;
+
+    private final File file;
+
+    /**
+     * Constructor.
+     * @param file trace file, or null to disable tracing.
+     */
+    public RequestTracer(File file) {
+        this.file = file;
+    }
+
+    public boolean isEnabled() {
+        return file != null;
+    }
+
+    /**
+     * Start tracing a request.
+     * @param api API name such as "v2" or "v3".
+     * @param endpoint request URL.
+     * @param region region of the resource.
+     * @param from source language.
+     * @param to target language.
+     * @param batchSize number of texts in the request.
+     * @param characters number of characters in the request.
+     * @return trace of the request.
+     */
+    public Trace begin(
+            String api, String endpoint, String region, String from, String to, int batchSize, int characters) {
+        if (!isEnabled()) {
+            return Trace.NONE;
+        }
+        Trace trace = new Trace(this);
+        trace.record.put("api", api);
+        trace.record.put("host", hostOf(endpoint));
+        trace.record.put("region", region);
+        trace.record.put("from", from);
+        trace.record.put("to", to);
+        trace.record.put("batch", batchSize);
+        trace.record.put("chars", characters);
+        return trace;
+    }
+
+    private static String hostOf(String endpoint) {
+        try {
+            return new URL(endpoint).getHost();
+        } catch (IOException e) {
+            return endpoint;
+        }
+    }
+
+    private static synchronized String getHostName() {
+        if (hostName == null) {
+            try {
+                hostName = InetAddress.getLocalHost().getHostName();
+            } catch (IOException e) {
+                hostName = "unknown";
+            }
+        }
+        return hostName;
+    }
+
+    void write(Map<String, Object> record) {
+        try {
+            byte[] line = (MAPPER.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+            synchronized (LOCK) {
+                rotate();
+                try (OutputStream out = new FileOutputStream(file, true)) {
+                    out.write(line);
+                }
+            }
+        } catch (IOException e) {
+            Log.log("Failed to write Microsoft Translator trace: " + e.getMessage());
+        }
+    }
+
+    private void rotate() throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        if (file.length() < MAX_FILE_SIZE) {
+            return;
+        }
+        new File(file.getPath() + "." + MAX_BACKUPS).delete();
+        for (int i = MAX_BACKUPS - 1; i >= 1; i--) {
+            File backup = new File(file.getPath() + "." + i);
+            if (backup.exists()) {
+                backup.renameTo(new File(file.getPath() + "." + (i + 1)));
+            }
+        }
+        file.renameTo(new File(file.getPath() + ".1"));
+    }
+
+    /**
+     * Trace of one request. Phases are timed from the end of the previous one.
+     */
+    public static final class Trace {
+        /**
+         * Trace of a disabled tracer, shared by all untraced requests.
+         */
+        static final Trace NONE = new Trace(null);
+
+        private final RequestTracer tracer;
+        private final String id;
+        private final long start;
+        private final Map<String, Object> record;
+        private final Map<String, Long> phases;
+        private long mark;
+
+        private Trace(RequestTracer tracer) {
+            this.tracer = tracer;
+            if (tracer == null) {
+                id = null;
+                start = 0;
+                record = null;
+                phases = null;
+                return;
+            }
+            id = UUID.randomUUID().toString();
+            start = System.nanoTime();
+            mark = start;
+            record = new LinkedHashMap<>();
+            phases = new LinkedHashMap<>();
+            record.put("ts", Instant.now().toString());
+            record.put("workstation", getHostName());
+            record.put("traceId", id);
+        }
+
+        /**
+         * @return client trace ID to send with the request, or null when tracing is disabled.
+         */
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Add the trace header when tracing is enabled.
+         * @param headers request headers.
+         */
+        public void addHeader(Map<String, String> headers) {
+            if (tracer != null) {
+                headers.put(TRACE_HEADER, id);
+            }
+        }
+
+        /**
+         * Mark the end of a phase.
+         * @param name phase name.
+         */
+        public void phase(String name) {
+            if (tracer == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            phases.put(name, (now - mark) / 1000);
+            mark = now;
+        }
+
+        /**
+         * Finish the trace and write it.
+         * @param status HTTP status, or -1 when no response was received.
+         * @param error error message, or null.
+         */
+        public void end(int status, String error) {
+            if (tracer == null) {
+                return;
+            }
+            record.put("status", status);
+            record.put("phasesUs", phases);
+            record.put("totalUs", (System.nanoTime() - start) / 1000);
+            if (error != null) {
+                record.put("error", error);
+            }
+            tracer.write(record);
+        }
+    }
+}
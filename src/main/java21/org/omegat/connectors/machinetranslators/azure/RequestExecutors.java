@@ -0,0 +1,86 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.omegat.connectors.machinetranslators.azure;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Factory of executors that run outbound Azure requests.
+ * <p>
+ * This is the Java 21 implementation packed in {@code META-INF/versions/21}
+ * of the multi-release jar. Each request gets its own virtual thread, so
+ * blocking HTTP calls are not capped by the number of platform threads.
+ *
+ * @author agent
+ */
+final class RequestExecutors {
+
+    /**
+     * Number of platform threads in the fallback pool.
+     */
+    static final int DEFAULT_POOL_SIZE = 8;
+
+    private RequestExecutors() {}
+
+    /**
+     * Create an executor for outbound requests.
+     * @param name prefix of worker thread names.
+     * @return an executor that starts a virtual thread per task.
+     */
+    static ExecutorService newRequestExecutor(String name) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+    }
+
+    /**
+     * Create a bounded pool of platform daemon threads.
+     * Idle threads are released after a minute.
+     * @param name prefix of worker thread names.
+     * @param size maximum number of threads.
+     * @return executor service.
+     */
+    static ExecutorService newBoundedExecutor(String name, int size) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                size,
+                size,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                Thread.ofPlatform().name(name + "-", 0).daemon(true).factory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Whether {@link #newRequestExecutor(String)} runs tasks on virtual threads.
+     * @return true on this runtime.
+     */
+    static boolean isVirtual() {
+        return true;
+    }
+}
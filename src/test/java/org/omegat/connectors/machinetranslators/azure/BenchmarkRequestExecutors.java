@@ -0,0 +1,138 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.omegat.connectors.machinetranslators.azure;
+
+import org.omegat.util.Language;
+import org.omegat.util.Preferences;
+import org.omegat.util.PreferencesImpl;
+import org.omegat.util.PreferencesXML;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import wiremock.org.apache.commons.io.FileUtils;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Throughput of the request executors under high concurrency against a local stub.
+ * <p>
+ * Run with {@code ./gradlew benchmark}, which uses a Java 21 runtime so that
+ * {@link RequestExecutors#newRequestExecutor(String)} runs on virtual threads.
+ *
+ * @author agent
+ */
+@Tag("benchmark")
+public class BenchmarkRequestExecutors {
+
+    private static final String V3_API_PATH = "/translate";
+    private static final int REQUESTS = 2000;
+    private static final int LATENCY_MS = 100;
+
+    @RegisterExtension
+    static WireMockExtension server = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort().containerThreads(512).jettyAcceptors(4))
+            .build();
+
+    private File tmpDir;
+
+    @BeforeEach
+    public final void setUp() throws IOException {
+        tmpDir = Files.createTempDirectory("omegat").toFile();
+        File prefsFile = new File(tmpDir, Preferences.FILE_PREFERENCES);
+        Preferences.IPreferences prefs = new PreferencesImpl(new PreferencesXML(null, prefsFile));
+        prefs.setPreference(MicrosoftTranslatorAzure.ALLOW_MICROSOFT_TRANSLATOR_AZURE, true);
+        TestMicrosoftTranslatorAzure.init(prefsFile.getAbsolutePath());
+        server.stubFor(post(urlPathEqualTo(V3_API_PATH))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withFixedDelay(LATENCY_MS)
+                        .withBody("[{\"translations\": [ {\"text\": \"Morgen kaufen gehen ein\"}]}]")));
+    }
+
+    @AfterEach
+    public final void tearDown() throws IOException {
+        FileUtils.deleteDirectory(tmpDir);
+    }
+
+    @Test
+    void benchmarkBoundedPool() throws Exception {
+        run("bounded", RequestExecutors.newBoundedExecutor("bench-bounded", RequestExecutors.DEFAULT_POOL_SIZE));
+    }
+
+    @Test
+    void benchmarkRequestExecutor() throws Exception {
+        run(
+                RequestExecutors.isVirtual() ? "virtual" : "bounded(fallback)",
+                RequestExecutors.newRequestExecutor("bench-request"));
+    }
+
+    private void run(String label, ExecutorService executor) throws Exception {
+        MicrosoftTranslatorAzure azure = new TestMicrosoftTranslatorAzure.MicrosoftTranslatorAzureMock();
+        AzureTranslatorV3 translator = (AzureTranslatorV3) azure.getTranslator();
+        translator.setUrl(String.format("http://localhost:%d%s?api-version=3.0", server.getPort(), V3_API_PATH));
+        Language en = new Language("EN");
+        Language de = new Language("DE");
+        List<Future<String>> futures = new ArrayList<>(REQUESTS);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(executor.submit(() -> translator.translate(en, de, "Buy tomorrow")));
+            }
+            for (Future<String> future : futures) {
+                Assertions.assertNotNull(future.get(2, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(
+                "%s executor: %d requests with %d ms latency in %.2f s, %.1f requests/s (java %s)%n",
+                label,
+                REQUESTS,
+                LATENCY_MS,
+                seconds,
+                REQUESTS / seconds,
+                System.getProperty("java.version"));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.omegat.connectors.machinetranslators.azure;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestAzureResourcePool {
+
+    @Test
+    public void testWeightedRoundRobin() {
+        AzureResource a = new AzureResource("a", "westus", null, 1);
+        AzureResource b = new AzureResource("b", "eastus", null, 3);
+        AzureResourcePool pool = new AzureResourcePool(Arrays.asList(a, b));
+        for (int i = 0; i < 400; i++) {
+            pool.release(pool.acquire());
+        }
+        Assertions.assertEquals(100, a.getServed());
+        Assertions.assertEquals(300, b.getServed());
+    }
+
+    @Test
+    public void testLeastOutstanding() {
+        AzureResource a = new AzureResource("a", "westus", null, 1);
+        AzureResource b = new AzureResource("b", "eastus", null, 1);
+        AzureResourcePool pool = new AzureResourcePool(Arrays.asList(a, b));
+        AzureResource first = pool.acquire();
+        AzureResource second = pool.acquire();
+        Assertions.assertNotSame(first, second);
+        pool.release(first);
+        Assertions.assertSame(first, pool.acquire());
+    }
+
+    @Test
+    public void testFailureTakesResourceOutOfRotation() {
+        AzureResource a = new AzureResource("a", "westus", null, 1);
+        AzureResource b = new AzureResource("b", "eastus", null, 1);
+        AzureResourcePool pool = new AzureResourcePool(Arrays.asList(a, b));
+        a.markFailure(System.currentTimeMillis());
+        for (int i = 0; i < 10; i++) {
+            AzureResource resource = pool.acquire();
+            Assertions.assertSame(b, resource);
+            pool.release(resource);
+        }
+        b.markFailure(System.currentTimeMillis());
+        // both are out of rotation: the one coming back first is used
+        Assertions.assertSame(a, pool.acquire());
+        a.markSuccess();
+        Assertions.assertTrue(a.isAvailable(System.currentTimeMillis()));
+    }
+
+    @Test
+    public void testUpdateKeepsState() {
+        AzureResource a = new AzureResource("a", "westus", null, 1);
+        AzureResource b = new AzureResource("b", "eastus", null, 1);
+        AzureResourcePool pool = new AzureResourcePool(Arrays.asList(a, b));
+        a.markFailure(System.currentTimeMillis());
+        AzureResourcePool updated = pool.update(Arrays.asList(
+                new AzureResource("a", "westus", null, 1), new AzureResource("b", "eastus", null, 2)));
+        Assertions.assertSame(a, updated.getResources().get(0));
+        Assertions.assertFalse(updated.getResources().get(0).isAvailable(System.currentTimeMillis()));
+        Assertions.assertNotSame(b, updated.getResources().get(1));
+        Assertions.assertEquals(2, updated.getResources().get(1).getWeight());
+    }
+
+    @Test
+    public void testSkipTriedResources() {
+        AzureResource a = new AzureResource("a", "westus", null, 1);
+        AzureResource b = new AzureResource("b", "eastus", null, 1);
+        AzureResourcePool pool = new AzureResourcePool(Arrays.asList(a, b));
+        Set<AzureResource> tried = new HashSet<>();
+        AzureResource first = pool.acquire(tried);
+        tried.add(first);
+        pool.release(first);
+        AzureResource second = pool.acquire(tried);
+        Assertions.assertNotSame(first, second);
+        tried.add(second);
+        pool.release(second);
+        Assertions.assertNull(pool.acquire(tried));
+        // a retry does not fall back to a resource out of rotation
+        b.markFailure(System.currentTimeMillis());
+        Assertions.assertNull(pool.acquire(Collections.singleton(a)));
+    }
+}
@@ -80,9 +80,25 @@ public class TestAzureTranslatorV3 {
     @Test
     public void testCreateJsonRequest() throws JsonProcessingException {
         MicrosoftTranslatorAzure azure = new TestMicrosoftTranslatorAzure.MicrosoftTranslatorAzureMock();
-        AzureTranslatorV3 translator = new AzureTranslatorV3(azure);
+        AzureTranslatorV3 translator = new AzureTranslatorV3(azure.getConfiguration(), null);
         String result = translator.createJsonRequest("\"foo\" boo");
         String expected = "[{\"text\":\"\\\"foo\\\" boo\"}]";
         Assertions.assertEquals(expected, result);
     }
+
+    @Test
+    public void testNormalizeEndpoint() {
+        String expected = "https://api-eur.cognitive.microsofttranslator.com/translate?api-version=3.0";
+        Assertions.assertEquals(
+                expected, AzureTranslatorV3.normalizeEndpoint("https://api-eur.cognitive.microsofttranslator.com"));
+        Assertions.assertEquals(
+                expected, AzureTranslatorV3.normalizeEndpoint("https://api-eur.cognitive.microsofttranslator.com/"));
+        Assertions.assertEquals(
+                expected,
+                AzureTranslatorV3.normalizeEndpoint("https://api-eur.cognitive.microsofttranslator.com/translate"));
+        Assertions.assertEquals(expected, AzureTranslatorV3.normalizeEndpoint(expected));
+        Assertions.assertEquals(
+                "http://localhost:8080/translate?category=tech&api-version=3.0",
+                AzureTranslatorV3.normalizeEndpoint("http://localhost:8080/translate?category=tech"));
+    }
 }
@@ -7,6 +7,7 @@
  *                2016-2017 Aaron Madlon-Kay
  *                2018 Didier Briel
  *                2022,2023 Hiroshi Miura
+ *                2026 agent
  *                Home page: https://www.omegat.org/
  *                Support center: https://omegat.org/support
  *
@@ -35,10 +36,21 @@ import org.omegat.util.RuntimePreferences;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
@@ -50,11 +62,18 @@ import org.junit.jupiter.api.Test;
 import wiremock.org.apache.commons.io.FileUtils;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
 import static com.github.tomakehurst.wiremock.client.WireMock.containing;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.head;
+import static com.github.tomakehurst.wiremock.client.WireMock.headRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 
 /**
  * @author Hiroshi Miura
@@ -131,13 +150,99 @@ public class TestMicrosoftTranslatorAzure {
         int port = wireMockRuntimeInfo.getHttpPort();
 
         MicrosoftTranslatorAzure azure = new MicrosoftTranslatorAzureMock();
-        MicrosoftTranslatorV2 translator = new MicrosoftTranslatorV2(azure);
+        MicrosoftTranslatorV2 translator = (MicrosoftTranslatorV2) azure.getTranslator();
         translator.setTokenUrl(String.format("http://localhost:%d%s", port, TOKEN_PATH));
         translator.setUrl(String.format("http://localhost:%d%s", port, V2_API_PATH));
         String result = translator.translate(new Language("EN"), new Language("DE"), text);
         Assertions.assertEquals(translation, result);
     }
 
+    /**
+     * Check warm-up fetches a V2 token and connects to the translate endpoint.
+     * @param wireMockRuntimeInfo wiremock
+     * @throws Exception when I/O error.
+     */
+    @Test
+    void testWarmUpV2(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        File prefsFile = new File(tmpDir, Preferences.FILE_PREFERENCES);
+        Preferences.IPreferences prefs = new PreferencesImpl(new PreferencesXML(null, prefsFile));
+        prefs.setPreference(MicrosoftTranslatorAzure.ALLOW_MICROSOFT_TRANSLATOR_AZURE, true);
+        prefs.setPreference(MicrosoftTranslatorAzure.PROPERTY_V2, true);
+        init(prefsFile.getAbsolutePath());
+
+        WireMock wireMock = wireMockRuntimeInfo.getWireMock();
+        wireMock.register(post(urlPathEqualTo(TOKEN_PATH))
+                .withHeader("Ocp-Apim-Subscription-Key", equalTo(KEY))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "text/plain")
+                        .withBody("PSEUDOTOKEN")));
+        wireMock.register(head(urlPathEqualTo(V2_API_PATH)).willReturn(aResponse().withStatus(405)));
+        int port = wireMockRuntimeInfo.getHttpPort();
+
+        MicrosoftTranslatorAzure azure = new MicrosoftTranslatorAzureMock();
+        MicrosoftTranslatorV2 translator = (MicrosoftTranslatorV2) azure.getTranslator();
+        translator.setTokenUrl(String.format("http://localhost:%d%s", port, TOKEN_PATH));
+        translator.setUrl(String.format("http://localhost:%d%s", port, V2_API_PATH));
+        translator.warmUp();
+        Assertions.assertEquals("PSEUDOTOKEN", translator.accessToken);
+        wireMock.verifyThat(1, postRequestedFor(urlPathEqualTo(TOKEN_PATH)));
+        wireMock.verifyThat(1, headRequestedFor(urlPathEqualTo(V2_API_PATH)));
+    }
+
+    /**
+     * Check the configuration snapshot is reused until invalidated.
+     */
+    @Test
+    void testConfigurationSnapshot() throws Exception {
+        File prefsFile = new File(tmpDir, Preferences.FILE_PREFERENCES);
+        Preferences.IPreferences prefs = new PreferencesImpl(new PreferencesXML(null, prefsFile));
+        prefs.setPreference(MicrosoftTranslatorAzure.ALLOW_MICROSOFT_TRANSLATOR_AZURE, true);
+        prefs.setPreference(MicrosoftTranslatorAzure.PROPERTY_V2, false);
+        init(prefsFile.getAbsolutePath());
+
+        MicrosoftTranslatorAzure azure = new MicrosoftTranslatorAzureMock();
+        AzureConfiguration config = azure.getConfiguration();
+        Assertions.assertSame(config, azure.getConfiguration());
+        Assertions.assertEquals(KEY, config.getKey());
+        Assertions.assertEquals(REGION, config.getRegion());
+        Assertions.assertTrue(azure.getTranslator() instanceof AzureTranslatorV3);
+        Assertions.assertSame(config, azure.getTranslator().getConfiguration());
+
+        Preferences.setPreference(MicrosoftTranslatorAzure.PROPERTY_V2, true);
+        azure.invalidateConfiguration();
+        AzureConfiguration updated = azure.getConfiguration();
+        Assertions.assertNotSame(config, updated);
+        Assertions.assertTrue(updated.isV2());
+        Assertions.assertTrue(azure.getTranslator() instanceof MicrosoftTranslatorV2);
+    }
+
+    /**
+     * Check untranslatable segments return without a scheduled request and are counted.
+     */
+    @Test
+    void testPassthroughNotScheduled() throws Exception {
+        File prefsFile = new File(tmpDir, Preferences.FILE_PREFERENCES);
+        Preferences.IPreferences prefs = new PreferencesImpl(new PreferencesXML(null, prefsFile));
+        prefs.setPreference(MicrosoftTranslatorAzure.ALLOW_MICROSOFT_TRANSLATOR_AZURE, true);
+        init(prefsFile.getAbsolutePath());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        RequestScheduler scheduler = new RequestScheduler(executor, 2, 1);
+        MicrosoftTranslatorAzure azure = new MicrosoftTranslatorAzureMock() {
+            @Override
+            protected synchronized RequestScheduler getScheduler() {
+                return scheduler;
+            }
+        };
+        String url = "https://omegat.org/";
+        Assertions.assertEquals(url, azure.translate(new Language("EN"), new Language("DE"), url));
+        Assertions.assertEquals(0, scheduler.getLatency(RequestScheduler.Priority.INTERACTIVE).getCount());
+        Assertions.assertEquals(1, azure.getAvoidedRequests());
+        Assertions.assertEquals(url.length(), azure.getAvoidedCharacters());
+    }
+
     /**
      * Initialize preferences for test.
      * @param configDir to create omegat.prefs.
@@ -196,9 +301,237 @@ public class TestMicrosoftTranslatorAzure {
                         .withBody("[{\"translations\": [ {\"text\": \"" + translation + "\"}]}]")));
         int port = wireMockRuntimeInfo.getHttpPort();
         MicrosoftTranslatorAzure azure = new MicrosoftTranslatorAzureMock();
-        AzureTranslatorV3 translator = new AzureTranslatorV3(azure);
+        AzureTranslatorV3 translator = (AzureTranslatorV3) azure.getTranslator();
         translator.setUrl(String.format("http://localhost:%d%s?api-version=3.0", port, V3_API_PATH));
         String result = translator.translate(new Language("EN"), new Language("DE"), text);
         Assertions.assertEquals(translation, result);
     }
+
+    /**
+     * Check V3 requests move to another resource when one is throttled.
+     * @param wireMockRuntimeInfo wiremock
+     * @throws Exception when I/O error.
+     */
+    @Test
+    void testResponseV3Failover(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        File prefsFile = new File(tmpDir, Preferences.FILE_PREFERENCES);
+        Preferences.IPreferences prefs = new PreferencesImpl(new PreferencesXML(null, prefsFile));
+        prefs.setPreference(MicrosoftTranslatorAzure.ALLOW_MICROSOFT_TRANSLATOR_AZURE, true);
+        prefs.setPreference(MicrosoftTranslatorAzure.PROPERTY_V2, false);
+        init(prefsFile.getAbsolutePath());
+
+        String text = "Buy tomorrow";
+        String translation = "Morgen kaufen gehen ein";
+        String secondKey = "hijklmn";
+
+        WireMockServer second = new WireMockServer(wireMockConfig().dynamicPort());
+        second.start();
+        try {
+            WireMock wireMock = wireMockRuntimeInfo.getWireMock();
+            wireMock.register(post(urlPathEqualTo(V3_API_PATH)).willReturn(aResponse().withStatus(429)));
+            second.stubFor(post(urlPathEqualTo(V3_API_PATH))
+                    .withHeader("Ocp-Apim-Subscription-Key", equalTo(secondKey))
+                    .withHeader("Ocp-Apim-Subscription-Region", equalTo("eastus"))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody("[{\"translations\": [ {\"text\": \"" + translation + "\"}]}]")));
+            AzureResourcePool pool = new AzureResourcePool(Arrays.asList(
+                    new AzureResource(
+                            KEY,
+                            REGION,
+                            String.format(
+                                    "http://localhost:%d%s?api-version=3.0",
+                                    wireMockRuntimeInfo.getHttpPort(),
+                                    V3_API_PATH),
+                            1),
+                    new AzureResource(
+                            secondKey,
+                            "eastus",
+                            String.format("http://localhost:%d%s?api-version=3.0", second.port(), V3_API_PATH),
+                            1)));
+            MicrosoftTranslatorAzure azure = new MicrosoftTranslatorAzureMock();
+            AzureTranslatorV3 translator = new AzureTranslatorV3(azure.getConfiguration(), pool);
+            Assertions.assertEquals(translation, translator.translate(new Language("EN"), new Language("DE"), text));
+            Assertions.assertEquals(translation, translator.translate(new Language("EN"), new Language("DE"), text));
+            // the throttled resource is out of rotation for the second request
+            wireMock.verifyThat(1, postRequestedFor(urlPathEqualTo(V3_API_PATH)));
+            second.verify(2, postRequestedFor(urlPathEqualTo(V3_API_PATH)));
+        } finally {
+            second.stop();
+        }
+    }
+
+    /**
+     * Check an extra resource given as a bare host endpoint without a region.
+     * @param wireMockRuntimeInfo wiremock
+     * @throws Exception when I/O error.
+     */
+    @Test
+    void testResponseV3BareEndpoint(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        int port = wireMockRuntimeInfo.getHttpPort();
+        File prefsFile = new File(tmpDir, Preferences.FILE_PREFERENCES);
+        Preferences.IPreferences prefs = new PreferencesImpl(new PreferencesXML(null, prefsFile));
+        prefs.setPreference(MicrosoftTranslatorAzure.ALLOW_MICROSOFT_TRANSLATOR_AZURE, true);
+        prefs.setPreference(MicrosoftTranslatorAzure.PROPERTY_V2, false);
+        prefs.setPreference(MicrosoftTranslatorAzure.PROPERTY_RESOURCES, String.format("|http://localhost:%d|1", port));
+        init(prefsFile.getAbsolutePath());
+
+        String text = "Buy tomorrow";
+        String translation = "Morgen kaufen gehen ein";
+        String secondKey = "hijklmn";
+        String secondKeyProperty = MicrosoftTranslatorAzure.PROPERTY_SUBSCRIPTION_KEY + ".1";
+
+        WireMock wireMock = wireMockRuntimeInfo.getWireMock();
+        wireMock.register(post(urlPathEqualTo(V3_API_PATH))
+                .withHeader("Ocp-Apim-Subscription-Key", equalTo(KEY))
+                .willReturn(aResponse().withStatus(429)));
+        wireMock.register(post(urlPathEqualTo(V3_API_PATH))
+                .withQueryParam("api-version", equalTo("3.0"))
+                .withQueryParam("from", equalTo("en"))
+                .withHeader("Ocp-Apim-Subscription-Key", equalTo(secondKey))
+                .withHeader("Ocp-Apim-Subscription-Region", absent())
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"translations\": [ {\"text\": \"" + translation + "\"}]}]")));
+        System.setProperty(secondKeyProperty, secondKey);
+        try {
+            MicrosoftTranslatorAzure azure = new MicrosoftTranslatorAzureMock();
+            AzureTranslatorV3 translator = (AzureTranslatorV3) azure.getTranslator();
+            translator.setUrl(String.format("http://localhost:%d%s?api-version=3.0", port, V3_API_PATH));
+            Assertions.assertEquals(translation, translator.translate(new Language("EN"), new Language("DE"), text));
+            wireMock.verifyThat(2, postRequestedFor(urlPathEqualTo(V3_API_PATH)));
+        } finally {
+            System.clearProperty(secondKeyProperty);
+        }
+    }
+
+    /**
+     * Check V3 warm-up connects to every resource endpoint.
+     * @param wireMockRuntimeInfo wiremock
+     * @throws Exception when I/O error.
+     */
+    @Test
+    void testWarmUpV3(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        File prefsFile = new File(tmpDir, Preferences.FILE_PREFERENCES);
+        Preferences.IPreferences prefs = new PreferencesImpl(new PreferencesXML(null, prefsFile));
+        prefs.setPreference(MicrosoftTranslatorAzure.ALLOW_MICROSOFT_TRANSLATOR_AZURE, true);
+        prefs.setPreference(MicrosoftTranslatorAzure.PROPERTY_V2, false);
+        init(prefsFile.getAbsolutePath());
+
+        WireMockServer second = new WireMockServer(wireMockConfig().dynamicPort());
+        second.start();
+        try {
+            WireMock wireMock = wireMockRuntimeInfo.getWireMock();
+            wireMock.register(head(urlPathEqualTo(V3_API_PATH)).willReturn(aResponse().withStatus(405)));
+            second.stubFor(head(urlPathEqualTo(V3_API_PATH)).willReturn(aResponse().withStatus(405)));
+            AzureResourcePool pool = new AzureResourcePool(Arrays.asList(
+                    new AzureResource(
+                            KEY,
+                            REGION,
+                            String.format(
+                                    "http://localhost:%d%s?api-version=3.0",
+                                    wireMockRuntimeInfo.getHttpPort(),
+                                    V3_API_PATH),
+                            1),
+                    new AzureResource(
+                            "hijklmn",
+                            "eastus",
+                            String.format("http://localhost:%d%s?api-version=3.0", second.port(), V3_API_PATH),
+                            1)));
+            MicrosoftTranslatorAzure azure = new MicrosoftTranslatorAzureMock();
+            AzureTranslatorV3 translator = new AzureTranslatorV3(azure.getConfiguration(), pool);
+            translator.warmUp();
+            wireMock.verifyThat(1, headRequestedFor(urlPathEqualTo(V3_API_PATH)));
+            second.verify(1, headRequestedFor(urlPathEqualTo(V3_API_PATH)));
+        } finally {
+            second.stop();
+        }
+    }
+
+    /**
+     * Check warmed-up segments are requested in the background and then served from the cache.
+     * @param wireMockRuntimeInfo wiremock
+     * @throws Exception when I/O error.
+     */
+    @Test
+    void testWarmUpSegments(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        File prefsFile = new File(tmpDir, Preferences.FILE_PREFERENCES);
+        Preferences.IPreferences prefs = new PreferencesImpl(new PreferencesXML(null, prefsFile));
+        prefs.setPreference(MicrosoftTranslatorAzure.ALLOW_MICROSOFT_TRANSLATOR_AZURE, true);
+        prefs.setPreference(MicrosoftTranslatorAzure.PROPERTY_V2, false);
+        init(prefsFile.getAbsolutePath());
+
+        String translation = "Morgen kaufen gehen ein";
+        WireMock wireMock = wireMockRuntimeInfo.getWireMock();
+        wireMock.register(post(urlPathEqualTo(V3_API_PATH))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"translations\": [ {\"text\": \"" + translation + "\"}]}]")));
+        MicrosoftTranslatorAzure azure = new MicrosoftTranslatorAzureMock();
+        AzureTranslatorV3 translator = (AzureTranslatorV3) azure.getTranslator();
+        translator.setUrl(String.format(
+                "http://localhost:%d%s?api-version=3.0", wireMockRuntimeInfo.getHttpPort(), V3_API_PATH));
+
+        Language sLang = new Language("EN");
+        Language tLang = new Language("DE");
+        List<CompletableFuture<String>> futures =
+                azure.warmUpSegments(sLang, tLang, Arrays.asList("Buy tomorrow", "Sell today"));
+        Assertions.assertEquals(2, futures.size());
+        for (CompletableFuture<String> future : futures) {
+            Assertions.assertEquals(translation, future.get(10, TimeUnit.SECONDS));
+        }
+        wireMock.verifyThat(2, postRequestedFor(urlPathEqualTo(V3_API_PATH)));
+
+        Assertions.assertEquals(translation, azure.getTranslation(sLang, tLang, "Buy tomorrow"));
+        wireMock.verifyThat(2, postRequestedFor(urlPathEqualTo(V3_API_PATH)));
+        // the requests ran as background ones only
+        RequestScheduler scheduler = azure.getScheduler();
+        Assertions.assertEquals(2, scheduler.getQueueWait(RequestScheduler.Priority.BACKGROUND).getCount());
+        Assertions.assertEquals(0, scheduler.getQueueWait(RequestScheduler.Priority.INTERACTIVE).getCount());
+    }
+
+    /**
+     * Check a traced V3 request records its trace ID and the network phases.
+     * @param wireMockRuntimeInfo wiremock
+     * @throws Exception when I/O error.
+     */
+    @Test
+    void testTraceV3(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        String translation = "Morgen kaufen gehen ein";
+        WireMock wireMock = wireMockRuntimeInfo.getWireMock();
+        wireMock.register(post(urlPathEqualTo(V3_API_PATH))
+                .withHeader(RequestTracer.TRACE_HEADER, matching("[0-9a-f-]{36}"))
+                .withHeader("Ocp-Apim-Subscription-Key", equalTo(KEY))
+                .withRequestBody(equalToJson("[{\"text\":\"Buy tomorrow\"}]"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"translations\": [ {\"text\": \"" + translation + "\"}]}]")));
+        File file = new File(tmpDir, "trace.jsonl");
+        AzureConfiguration config = new AzureConfiguration(
+                KEY,
+                REGION,
+                false,
+                false,
+                0,
+                new PassthroughFilter(true, Collections.emptyList()),
+                new RequestTracer(file));
+        String endpoint = String.format(
+                "http://localhost:%d%s?api-version=3.0", wireMockRuntimeInfo.getHttpPort(), V3_API_PATH);
+        AzureTranslatorV3 translator = new AzureTranslatorV3(
+                config, new AzureResourcePool(Collections.singletonList(new AzureResource(KEY, REGION, endpoint, 1))));
+        Assertions.assertEquals(
+                translation, translator.translate(new Language("EN"), new Language("DE"), "Buy tomorrow"));
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        Assertions.assertEquals(1, lines.size());
+        JsonNode record = new ObjectMapper().readTree(lines.get(0));
+        Assertions.assertEquals(200, record.get("status").asInt());
+        for (String phase : new String[] {"serialize", "dns", "connect", "send", "server", "read", "parse"}) {
+            Assertions.assertTrue(record.get("phasesUs").has(phase), phase);
+        }
+    }
 }
@@ -0,0 +1,89 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.omegat.connectors.machinetranslators.azure;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestPassthroughFilter {
+
+    @Test
+    public void testUntranslatable() {
+        PassthroughFilter filter = new PassthroughFilter(true, Collections.emptyList());
+        Assertions.assertTrue(filter.isUntranslatable("12,345.67"));
+        Assertions.assertTrue(filter.isUntranslatable("2024-10-19"));
+        Assertions.assertTrue(filter.isUntranslatable("v1.2.3-beta"));
+        Assertions.assertTrue(filter.isUntranslatable("https://omegat.org/support?lang=en"));
+        Assertions.assertTrue(filter.isUntranslatable("user@example.com"));
+        Assertions.assertTrue(filter.isUntranslatable("/usr/local/bin"));
+        Assertions.assertTrue(filter.isUntranslatable("docs/index.html"));
+        Assertions.assertTrue(filter.isUntranslatable("getTranslation()"));
+        Assertions.assertTrue(filter.isUntranslatable("Core.getProject();"));
+        Assertions.assertTrue(filter.isUntranslatable("setKey(key,temporary)"));
+        Assertions.assertTrue(filter.isUntranslatable("java.util.List"));
+        Assertions.assertTrue(filter.isUntranslatable("~/omegat"));
+        Assertions.assertTrue(filter.isUntranslatable("C:\\Users\\omegat"));
+        Assertions.assertTrue(filter.isUntranslatable("MAX_VALUE"));
+        Assertions.assertTrue(filter.isUntranslatable("<f0></f0>"));
+        Assertions.assertTrue(filter.isUntranslatable("<x1/> 42 %"));
+    }
+
+    @Test
+    public void testTranslatable() {
+        PassthroughFilter filter = new PassthroughFilter(true, Collections.emptyList());
+        Assertions.assertFalse(filter.isUntranslatable("Buy tomorrow"));
+        Assertions.assertFalse(filter.isUntranslatable("Hello"));
+        Assertions.assertFalse(filter.isUntranslatable("Version 1.2"));
+        Assertions.assertFalse(filter.isUntranslatable("Yes/No"));
+        Assertions.assertFalse(filter.isUntranslatable("Yes/No/Cancel"));
+        Assertions.assertFalse(filter.isUntranslatable("Add/Remove/Edit"));
+        Assertions.assertFalse(filter.isUntranslatable("Read/Write/Execute"));
+        Assertions.assertFalse(filter.isUntranslatable("Start/Stop/Pause"));
+        Assertions.assertFalse(filter.isUntranslatable("Item(s)"));
+        Assertions.assertFalse(filter.isUntranslatable("File(s)"));
+        Assertions.assertFalse(filter.isUntranslatable("Name(optional)"));
+        Assertions.assertFalse(filter.isUntranslatable("mm/dd/yyyy"));
+        Assertions.assertFalse(filter.isUntranslatable("dd.mm.yyyy"));
+        Assertions.assertFalse(filter.isUntranslatable("<b0>Save</b0> the file"));
+        Assertions.assertFalse(filter.isUntranslatable(""));
+    }
+
+    @Test
+    public void testPatterns() {
+        PassthroughFilter filter = new PassthroughFilter(true, PassthroughFilter.parsePatterns("ACME.*\n[invalid\n"));
+        Assertions.assertTrue(filter.test("ACME Corporation"));
+        Assertions.assertTrue(filter.test("1.0.0"));
+        Assertions.assertFalse(filter.test("Buy tomorrow"));
+    }
+
+    @Test
+    public void testDisabled() {
+        PassthroughFilter filter = new PassthroughFilter(false, Collections.emptyList());
+        Assertions.assertFalse(filter.test("12345"));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.omegat.connectors.machinetranslators.azure;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.omegat.connectors.machinetranslators.azure.RequestScheduler.Priority.BACKGROUND;
+import static org.omegat.connectors.machinetranslators.azure.RequestScheduler.Priority.INTERACTIVE;
+
+public class TestRequestScheduler {
+
+    @Test
+    public void testReservedSlot() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(Executors.newCachedThreadPool(), 2, 1);
+        CountDownLatch latch = new CountDownLatch(1);
+        CompletableFuture<String> bg1 = scheduler.submit(BACKGROUND, () -> {
+            latch.await();
+            return "bg1";
+        });
+        CompletableFuture<String> bg2 = scheduler.submit(BACKGROUND, () -> "bg2");
+        // the interactive request runs while the only background slot is busy
+        Assertions.assertEquals("fg", scheduler.call(INTERACTIVE, () -> "fg"));
+        Assertions.assertFalse(bg2.isDone());
+        latch.countDown();
+        Assertions.assertEquals("bg1", bg1.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("bg2", bg2.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, scheduler.getLatency(INTERACTIVE).getCount());
+        Assertions.assertEquals(2, scheduler.getLatency(BACKGROUND).getCount());
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testInteractiveOvertakesQueuedBackground() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(Executors.newCachedThreadPool(), 1, 0);
+        CountDownLatch latch = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        CompletableFuture<Object> blocker = scheduler.submit(BACKGROUND, () -> {
+            latch.await();
+            return null;
+        });
+        CompletableFuture<Boolean> bg = scheduler.submit(BACKGROUND, () -> order.add("bg"));
+        CompletableFuture<Boolean> fg = scheduler.submit(INTERACTIVE, () -> order.add("fg"));
+        latch.countDown();
+        CompletableFuture.allOf(blocker, bg, fg).get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals("fg", order.get(0));
+        Assertions.assertEquals("bg", order.get(1));
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testNestedCallAndException() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(Executors.newCachedThreadPool(), 2, 1);
+        String result = scheduler.submit(BACKGROUND, () -> scheduler.call(INTERACTIVE, () -> "nested"))
+                .get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals("nested", result);
+        Assertions.assertThrows(IllegalStateException.class, () -> scheduler.call(INTERACTIVE, () -> {
+            throw new IllegalStateException("fail");
+        }));
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testSetMaxConcurrency() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(Executors.newCachedThreadPool(), 2, 1);
+        CountDownLatch latch = new CountDownLatch(1);
+        CompletableFuture<Object> blocker = scheduler.submit(BACKGROUND, () -> {
+            latch.await();
+            return null;
+        });
+        CompletableFuture<String> bg = scheduler.submit(BACKGROUND, () -> "bg");
+        Assertions.assertFalse(bg.isDone());
+        // a raised limit dispatches the queued request while the first one still runs
+        scheduler.setMaxConcurrency(3);
+        Assertions.assertEquals(3, scheduler.getMaxConcurrency());
+        Assertions.assertEquals("bg", bg.get(5, TimeUnit.SECONDS));
+        Assertions.assertFalse(blocker.isDone());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> scheduler.setMaxConcurrency(1));
+        latch.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testLatencyStats() {
+        LatencyStats stats = new LatencyStats();
+        for (int i = 1; i <= 100; i++) {
+            stats.record(i);
+        }
+        Assertions.assertEquals(50, stats.percentile(50));
+        Assertions.assertEquals(95, stats.percentile(95));
+        Assertions.assertEquals(50.5, stats.getMean(), 0.001);
+    }
+}
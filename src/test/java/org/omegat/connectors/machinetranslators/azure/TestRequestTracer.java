@@ -0,0 +1,105 @@
+/*
+ *  OmegaT - Computer Assisted Translation (CAT) tool
+ *           with fuzzy matching, translation memory, keyword search,
+ *           glossaries, and translation leveraging into updated projects.
+ *
+ *  Copyright (C) 2026 agent
+ *                Home page: https://www.omegat.org/
+ *                Support center: https://omegat.org/support
+ *
+ *  This file is part of OmegaT.
+ *
+ *  OmegaT is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  OmegaT is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.omegat.connectors.machinetranslators.azure;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import wiremock.org.apache.commons.io.FileUtils;
+
+public class TestRequestTracer {
+
+    private File tmpDir;
+
+    @BeforeEach
+    public final void setUp() throws IOException {
+        tmpDir = Files.createTempDirectory("omegat").toFile();
+    }
+
+    @AfterEach
+    public final void tearDown() throws IOException {
+        FileUtils.deleteDirectory(tmpDir);
+    }
+
+    @Test
+    public void testTraceRecord() throws IOException {
+        File file = new File(tmpDir, "logs/trace.jsonl");
+        RequestTracer tracer = new RequestTracer(file);
+        RequestTracer.Trace trace = tracer.begin(
+                "v3", "https://api.cognitive.microsofttranslator.com/translate", "uswest", "en", "de", 1, 12);
+        Map<String, String> headers = new HashMap<>();
+        trace.addHeader(headers);
+        Assertions.assertEquals(trace.getId(), headers.get(RequestTracer.TRACE_HEADER));
+        trace.phase("request");
+        trace.phase("parse");
+        trace.end(200, null);
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        Assertions.assertEquals(1, lines.size());
+        JsonNode record = new ObjectMapper().readTree(lines.get(0));
+        Assertions.assertEquals(trace.getId(), record.get("traceId").asText());
+        Assertions.assertEquals("api.cognitive.microsofttranslator.com", record.get("host").asText());
+        Assertions.assertEquals(12, record.get("chars").asInt());
+        Assertions.assertEquals(200, record.get("status").asInt());
+        Assertions.assertTrue(record.get("phasesUs").has("request"));
+        Assertions.assertTrue(record.get("phasesUs").has("parse"));
+    }
+
+    @Test
+    public void testDisabled() {
+        RequestTracer.Trace trace = RequestTracer.DISABLED.begin("v2", "http://localhost/", null, "en", "de", 1, 3);
+        Assertions.assertSame(
+                trace, RequestTracer.DISABLED.begin("v3", "http://localhost/", "uswest", "en", "de", 1, 3));
+        Assertions.assertNull(trace.getId());
+        Map<String, String> headers = new HashMap<>();
+        trace.addHeader(headers);
+        trace.phase("request");
+        trace.end(200, null);
+        Assertions.assertTrue(headers.isEmpty());
+    }
+
+    @Test
+    public void testRotation() throws IOException {
+        File file = new File(tmpDir, "trace.jsonl");
+        byte[] filler = new byte[(int) RequestTracer.MAX_FILE_SIZE];
+        Files.write(file.toPath(), filler);
+        RequestTracer tracer = new RequestTracer(file);
+        tracer.begin("v3", "http://localhost/", "uswest", "en", "de", 1, 3).end(429, "Too Many Requests");
+        Assertions.assertTrue(new File(tmpDir, "trace.jsonl.1").isFile());
+        Assertions.assertEquals(1, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size());
+    }
+}